@@ -0,0 +1,609 @@
+package project5;
+
+import java.util.ArrayDeque;
+import java.util.ConcurrentModificationException;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.IntPredicate;
+
+/**
+ * Represents a self-balancing (AVL) binary search tree that stores and manages
+ * Word objects.
+ * Unlike BSTIndex, the height of this tree is kept within O(log n) after every
+ * add and remove, so sorted or nearly sorted input does not degrade the tree
+ * into a list.
+ * This class provides an iterator for traversing the tree in sorted order and
+ * removing the last returned Word object.
+ *
+ * @author Olivia Yu
+ * @version October 17, 2026
+ */
+public class AVLIndex implements Index {
+    private Node root = null;
+    private int size = 0;
+    private int modCount = 0;
+
+    /**
+     * Provides an iterator for the AVLIndex.
+     * The iterator traverses the tree in sorted order according to the natural
+     * ordering of the Word objects and supports the remove function.
+     *
+     * @return an Iterator for the AVLIndex.
+     */
+    @Override
+    public Iterator<Word> iterator() {
+        return new AVLIterator();
+    }
+
+    /**
+     * Adds a word to the AVLIndex. If the word already exists, its count is
+     * incremented.
+     *
+     * @param item the word to be added.
+     * @throws IllegalArgumentException if the provided item is null.
+     */
+    @Override
+    public void add(String item) throws IllegalArgumentException {
+        add(item, 1);
+    }
+
+    /**
+     * Adds count occurrences of a word to the AVLIndex. If the word already
+     * exists, its count is increased by count.
+     *
+     * @param item  the word to be added.
+     * @param count the number of occurrences to be added.
+     * @throws IllegalArgumentException if the provided item is null or the count
+     *                                  is not positive.
+     */
+    @Override
+    public void add(String item, int count) throws IllegalArgumentException {
+        if (item == null) {
+            throw new IllegalArgumentException("Cannot add null element");
+        }
+        if (count <= 0) {
+            throw new IllegalArgumentException("count must be positive");
+        }
+
+        root = addHelper(item, count, root);
+    }
+
+    /**
+     * Recursively adds the specified item below the given node and rebalances
+     * the nodes on the way back up.
+     *
+     * @param item  The word to be added.
+     * @param count The number of occurrences to be added.
+     * @param cur   The current node being inspected.
+     * @return The (possibly new) root of this subtree.
+     */
+    private Node addHelper(String item, int count, Node cur) {
+        if (cur == null) {
+            size++;
+            modCount++;
+            return new Node(new Word(item, count));
+        }
+
+        int compare = item.compareTo(cur.word.getWord());
+
+        if (compare > 0) {
+            cur.right = addHelper(item, count, cur.right);
+        } else if (compare < 0) {
+            cur.left = addHelper(item, count, cur.left);
+        } else {
+            cur.word.addCount(count);
+            return cur;
+        }
+
+        return rebalance(cur);
+    }
+
+    /**
+     * Removes a word from the AVLIndex.
+     *
+     * @param item the word to be removed.
+     * @throws IllegalArgumentException if the provided item is null.
+     */
+    @Override
+    public void remove(String item) throws IllegalArgumentException {
+        if (item == null)
+            throw new IllegalArgumentException("cannot remove a node whose name is null");
+
+        this.root = removeHelper(item, this.root);
+    }
+
+    /**
+     * Recursively removes the specified item from the tree and rebalances the
+     * nodes on the way back up.
+     *
+     * @param item The word to be removed.
+     * @param cur  The current node being inspected.
+     * @return The updated root of this subtree after removal.
+     */
+    private Node removeHelper(String item, Node cur) {
+        if (cur == null) {
+            return null;
+        }
+
+        int compare = cur.word.getWord().compareTo(item);
+
+        if (compare > 0) {
+            cur.left = removeHelper(item, cur.left);
+        } else if (compare < 0) {
+            cur.right = removeHelper(item, cur.right);
+        } else {
+            if (cur.left == null || cur.right == null) {
+                size--;
+                modCount++;
+                return cur.left == null ? cur.right : cur.left;
+            }
+
+            Node tmp = traceSuccessor(cur.right);
+            cur.word = tmp.word;
+            cur.right = removeHelper(tmp.word.getWord(), cur.right);
+        }
+
+        return rebalance(cur);
+    }
+
+    /**
+     * Removes every word whose count satisfies the given predicate. The words
+     * that remain are collected in order during one traversal and the tree is
+     * rebuilt from them in linear time. The rebuilt tree is perfectly balanced,
+     * so it satisfies the AVL property.
+     *
+     * @param onCount predicate applied to the count of each word.
+     * @return the number of words removed.
+     * @throws IllegalArgumentException if onCount is null.
+     */
+    @Override
+    public int removeIf(IntPredicate onCount) throws IllegalArgumentException {
+        if (onCount == null)
+            throw new IllegalArgumentException("predicate cannot be null");
+
+        Word[] kept = inOrder();
+        int count = 0;
+        for (Word w : kept) {
+            if (!onCount.test(w.getCount()))
+                kept[count++] = w;
+        }
+
+        int removed = size - count;
+        if (removed > 0) {
+            root = buildBalanced(kept, 0, count);
+            size = count;
+            modCount++;
+        }
+        return removed;
+    }
+
+    /**
+     * Adds the counts of all words of another index to this tree. Since both
+     * indexes iterate in sorted order, their words are merged in a single
+     * linear pass and the tree is rebuilt from the result instead of being
+     * searched and rebalanced once per word.
+     *
+     * @param other the index whose counts should be added.
+     * @throws IllegalArgumentException if other is null.
+     */
+    @Override
+    public void merge(Index other) throws IllegalArgumentException {
+        if (other == null)
+            throw new IllegalArgumentException("can not merge null index");
+
+        Word[] mine = inOrder();
+        Word[] merged = new Word[size + other.size()];
+        int i = 0;
+        int count = 0;
+        for (Word w : other) {
+            while (i < mine.length && mine[i].compareTo(w) < 0)
+                merged[count++] = mine[i++];
+            if (i < mine.length && mine[i].compareTo(w) == 0) {
+                mine[i].addCount(w.getCount());
+                merged[count++] = mine[i++];
+            } else {
+                merged[count++] = new Word(w.getWord(), w.getCount());
+            }
+        }
+        while (i < mine.length)
+            merged[count++] = mine[i++];
+
+        root = buildBalanced(merged, 0, count);
+        size = count;
+        modCount++;
+    }
+
+    /**
+     * Returns the words of the tree in sorted order.
+     *
+     * @return the words of the tree in sorted order.
+     */
+    private Word[] inOrder() {
+        Word[] words = new Word[size];
+        int count = 0;
+        Deque<Node> stack = new ArrayDeque<>();
+        Node cur = root;
+        while (cur != null || !stack.isEmpty()) {
+            while (cur != null) {
+                stack.push(cur);
+                cur = cur.left;
+            }
+            cur = stack.pop();
+            words[count++] = cur.word;
+            cur = cur.right;
+        }
+        return words;
+    }
+
+    /**
+     * Builds a balanced tree from a sorted range of words.
+     *
+     * @param words sorted array of words.
+     * @param from  first position of the range (inclusive).
+     * @param to    last position of the range (exclusive).
+     * @return the root of the new tree, or null if the range is empty.
+     */
+    private Node buildBalanced(Word[] words, int from, int to) {
+        if (from >= to)
+            return null;
+
+        int mid = (from + to) >>> 1;
+        Node n = new Node(words[mid]);
+        n.left = buildBalanced(words, from, mid);
+        n.right = buildBalanced(words, mid + 1, to);
+        updateHeight(n);
+        return n;
+    }
+
+    /**
+     * Traces and returns the in-order successor of the given node.
+     *
+     * @param n The node whose successor is to be found.
+     * @return The in-order successor of the given node.
+     */
+    private Node traceSuccessor(Node n) {
+        while (n.left != null) {
+            n = n.left;
+        }
+
+        return n;
+    }
+
+    /**
+     * Retrieves the count of the specified word in the tree.
+     *
+     * @param item The word whose count is to be returned.
+     * @throws IllegalArgumentException if the provided String item is null.
+     * @return The count of the word, or -1 if the word is not in the tree.
+     */
+    @Override
+    public int get(String item) throws IllegalArgumentException {
+        if (item == null)
+            throw new IllegalArgumentException("can not get null element");
+
+        Node cur = root;
+        while (cur != null) {
+            int compare = item.compareTo(cur.word.getWord());
+
+            // branching on less and greater first keeps the JIT from choosing
+            // the child with a conditional move, which would make every level
+            // wait for the comparison before loading the next node
+            if (compare < 0)
+                cur = cur.left;
+            else if (compare > 0)
+                cur = cur.right;
+            else
+                return cur.word.getCount();
+        }
+
+        return -1;
+    }
+
+    /**
+     * Returns the size of the AVLIndex.
+     *
+     * @return the number of unique words in the AVLIndex.
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the height of the given node, where an empty subtree has height 0.
+     *
+     * @param n The node whose height is to be returned.
+     * @return The height of the node.
+     */
+    private int height(Node n) {
+        return n == null ? 0 : n.height;
+    }
+
+    /**
+     * Recomputes the height of the given node from its children.
+     *
+     * @param n The node whose height is to be updated.
+     */
+    private void updateHeight(Node n) {
+        n.height = 1 + Math.max(height(n.left), height(n.right));
+    }
+
+    /**
+     * Restores the AVL property at the given node by performing at most two
+     * rotations.
+     *
+     * @param n The node to be rebalanced.
+     * @return The new root of this subtree.
+     */
+    private Node rebalance(Node n) {
+        updateHeight(n);
+        int balance = height(n.left) - height(n.right);
+
+        if (balance > 1) {
+            if (height(n.left.left) < height(n.left.right)) {
+                n.left = rotateLeft(n.left);
+            }
+            return rotateRight(n);
+        }
+
+        if (balance < -1) {
+            if (height(n.right.right) < height(n.right.left)) {
+                n.right = rotateRight(n.right);
+            }
+            return rotateLeft(n);
+        }
+
+        return n;
+    }
+
+    /**
+     * Rotates the subtree rooted at the given node to the right.
+     *
+     * @param n The root of the subtree.
+     * @return The new root of the subtree.
+     */
+    private Node rotateRight(Node n) {
+        Node newRoot = n.left;
+        n.left = newRoot.right;
+        newRoot.right = n;
+        updateHeight(n);
+        updateHeight(newRoot);
+        return newRoot;
+    }
+
+    /**
+     * Rotates the subtree rooted at the given node to the left.
+     *
+     * @param n The root of the subtree.
+     * @return The new root of the subtree.
+     */
+    private Node rotateLeft(Node n) {
+        Node newRoot = n.right;
+        n.right = newRoot.left;
+        newRoot.left = n;
+        updateHeight(n);
+        updateHeight(newRoot);
+        return newRoot;
+    }
+
+    /**
+     * Compares the specified object with this AVLIndex for equality.
+     * Two Index objects are considered equal if they contain the same number of
+     * words, and those words are pairwise equal.
+     *
+     * @param o the object to be compared for equality with this AVLIndex.
+     * @return true if the specified object is equal to this AVLIndex.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (o == null)
+            return false;
+
+        if (o == this)
+            return true;
+
+        if (!(o instanceof Index))
+            return false;
+
+        Index obj = (Index) o;
+
+        if (this.size() != obj.size())
+            return false;
+
+        // using two iterators to iterate through two indexes and checks the equality
+        // for every data value
+        Iterator<Word> it1 = this.iterator();
+        Iterator<Word> it2 = obj.iterator();
+
+        while (it1.hasNext() && it2.hasNext()) {
+            Word data1 = it1.next();
+            Word data2 = it2.next();
+
+            if (!data1.equals(data2))
+                return false;
+
+        }
+
+        return !it1.hasNext() && !it2.hasNext();
+
+    }
+
+    /**
+     * Returns a hash code for this AVLIndex, consistent with equals().
+     *
+     * @return the hash code of this AVLIndex.
+     */
+    @Override
+    public int hashCode() {
+        return Index.hashCodeOf(this);
+    }
+
+    /**
+     * Returns the string representation of this AVLIndex.
+     * The string representation consists of a list of all Word objects in sorted
+     * order, enclosed in square brackets ("[]"). Adjacent elements are separated
+     * by ", " (comma and space).
+     *
+     * @return the string representation of the AVLIndex.
+     */
+    public String toString() {
+        if (size() == 0) {
+            return "[]";
+        }
+
+        StringBuilder str = new StringBuilder("[");
+        Iterator<Word> it = iterator();
+
+        if (it.hasNext()) {
+            str.append(it.next());
+        }
+
+        while (it.hasNext()) {
+            str.append(", ").append(it.next());
+        }
+
+        return str.append("]").toString();
+    }
+
+    /**
+     * Represents a node in the AVLIndex.
+     * Each node stores a Word object, references to its left and right children
+     * and the height of the subtree rooted at this node.
+     */
+    private class Node implements Comparable<Node> {
+
+        Word word;
+        Node left;
+        Node right;
+        int height = 1;
+
+        /**
+         * Constructs a Node with the specified Word object.
+         *
+         * @param word The Word object to be stored in this node.
+         * @throws NullPointerException if the provided Word object is null.
+         */
+        Node(Word word) throws NullPointerException {
+            if (word == null)
+                throw new NullPointerException("does not allow null");
+            this.word = word;
+        }
+
+        /**
+         * Compares this Node with another Node based on the Word objects they store.
+         *
+         * @param o The Node to be compared.
+         * @return a negative integer, zero, or a positive integer as this node's Word
+         *         is less than, equal to, or greater than the specified node's Word.
+         */
+        @Override
+        public int compareTo(Node o) {
+            return this.word.compareTo(o.word);
+        }
+
+    }
+
+    /**
+     * Implements the Iterator interface, providing a way to iterate through the
+     * AVLIndex in sorted order and able to remove the last returned item.
+     * The iterator keeps an explicit stack of the nodes still to be visited, so
+     * it uses O(log n) memory. Since rotations after a removal may reshape the
+     * tree, remove() re-seeks the stack to the successor of the removed word.
+     */
+    private class AVLIterator implements Iterator<Word> {
+
+        private Deque<Node> stack = new ArrayDeque<>();
+        private Word lastReturned = null;
+        private int expectedModCount = modCount;
+
+        /**
+         * Constructs an iterator positioned at the smallest word of the tree.
+         */
+        AVLIterator() {
+            pushLeft(root);
+        }
+
+        /**
+         * Pushes the given node and all of its left descendants onto the stack.
+         *
+         * @param n The starting node.
+         */
+        private void pushLeft(Node n) {
+            while (n != null) {
+                stack.push(n);
+                n = n.left;
+            }
+        }
+
+        /**
+         * Checks if there are more elements in the iteration.
+         *
+         * @return true if the iteration has more elements.
+         */
+        @Override
+        public boolean hasNext() {
+            return !stack.isEmpty();
+        }
+
+        /**
+         * Returns the next element in the iteration.
+         *
+         * @return The next Word object in the iteration.
+         * @throws NoSuchElementException          if the iteration has no more
+         *                                         elements.
+         * @throws ConcurrentModificationException if the tree was structurally
+         *                                         modified outside this iterator.
+         */
+        @Override
+        public Word next() throws NoSuchElementException {
+            if (expectedModCount != modCount) {
+                throw new ConcurrentModificationException("index modified during iteration");
+            }
+            if (!hasNext()) {
+                throw new NoSuchElementException("end of the tree!");
+            }
+
+            Node n = stack.pop();
+            pushLeft(n.right);
+            lastReturned = n.word;
+            return lastReturned;
+        }
+
+        /**
+         * Removes the last element returned by this iterator from the AVLIndex.
+         *
+         * @throws IllegalStateException if the next method has not yet been called,
+         *                               or the remove method has already been called
+         *                               after the last call to next.
+         */
+        @Override
+        public void remove() throws IllegalStateException {
+            if (lastReturned == null) {
+                throw new IllegalStateException("next() must be called before remove method");
+            }
+            if (expectedModCount != modCount) {
+                throw new ConcurrentModificationException("index modified during iteration");
+            }
+
+            String removed = lastReturned.getWord();
+            AVLIndex.this.remove(removed);
+            expectedModCount = modCount;
+            lastReturned = null;
+
+            // rebuild the stack so that it holds the path to the first word
+            // greater than the removed one
+            stack.clear();
+            Node cur = root;
+            while (cur != null) {
+                if (cur.word.getWord().compareTo(removed) > 0) {
+                    stack.push(cur);
+                    cur = cur.left;
+                } else {
+                    cur = cur.right;
+                }
+            }
+        }
+
+    }
+}
@@ -0,0 +1,547 @@
+package project5;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.IntPredicate;
+
+/**
+ * Represents an approximate index whose memory does not grow with the number
+ * of distinct words, for inputs with too many distinct tokens to keep an
+ * exact count of every one.
+ * Counts are kept in a Count-Min Sketch: depth rows of width counters, each
+ * word hashed to one counter per row. The estimate of a word is the smallest
+ * of its counters, so it is never lower than the true count, and with
+ * probability 1 - delta it exceeds the true count by at most epsilon times
+ * the total number of words added. Counters are updated conservatively (only
+ * those below the new estimate are raised), which lowers the error further.
+ * Next to the sketch, a heap of heavy hitters holds the capacity words with
+ * the highest estimates; like in the Space-Saving algorithm, a new word
+ * replaces the least frequent one when its estimate is higher. Every word
+ * whose true count is above getTrackingThreshold() is guaranteed to be in
+ * the heap.
+ * get() answers for any word from the sketch; iteration, size() and
+ * wordsAbove() cover the heavy hitters only. removeIf() drops heavy hitters,
+ * which makes room in the heap for other words, but leaves the sketch
+ * unchanged. Single words cannot be removed from a sketch, so remove and
+ * Iterator.remove throw UnsupportedOperationException.
+ *
+ * @author Olivia Yu
+ * @version October 17, 2026
+ */
+public class ApproximateIndex implements Index {
+
+    private final int width;
+    private final int depth;
+    private final int[] sketch;
+    private final int capacity;
+    private final HashMap<String, Entry> tracked;
+    private final Entry[] heap;
+    private int heapSize = 0;
+    private long total = 0;
+
+    /**
+     * Constructs an approximate index with an error of at most 0.01% of the
+     * number of words added, with probability 99.9%, that tracks the 1000 most
+     * frequent words. The sketch takes 896 KB.
+     */
+    public ApproximateIndex() {
+        this(1e-4, 1e-3, 1000);
+    }
+
+    /**
+     * Constructs an approximate index with the given error bounds. The sketch
+     * has ceil(e / epsilon) counters per row, rounded up to a power of two,
+     * and ceil(ln(1 / delta)) rows.
+     *
+     * @param epsilon  maximum overestimate as a fraction of the number of
+     *                 words added.
+     * @param delta    probability that an estimate exceeds that bound.
+     * @param capacity number of heavy hitters tracked.
+     * @throws IllegalArgumentException if epsilon or delta is not between 0 and
+     *                                  1, or capacity is not positive.
+     */
+    public ApproximateIndex(double epsilon, double delta, int capacity)
+            throws IllegalArgumentException {
+        if (!(epsilon > 0 && epsilon < 1) || !(delta > 0 && delta < 1))
+            throw new IllegalArgumentException("epsilon and delta must be between 0 and 1");
+        if (capacity <= 0)
+            throw new IllegalArgumentException("capacity must be positive");
+
+        long columns = (long) Math.ceil(Math.E / epsilon);
+        if (columns > 1 << 28)
+            throw new IllegalArgumentException("epsilon is too small");
+        int w = 1;
+        while (w < columns)
+            w <<= 1;
+        this.width = w;
+        this.depth = Math.max(1, (int) Math.ceil(Math.log(1 / delta)));
+        this.sketch = new int[width * depth];
+        this.capacity = capacity;
+        this.tracked = new HashMap<>(capacity * 2);
+        this.heap = new Entry[capacity];
+    }
+
+    /**
+     * Returns an iterator over the heavy hitters in sorted order, with their
+     * estimated counts.
+     *
+     * @return an Iterator for the ApproximateIndex.
+     */
+    @Override
+    public Iterator<Word> iterator() {
+        Word[] words = new Word[heapSize];
+        for (int i = 0; i < heapSize; i++)
+            words[i] = new Word(heap[i].word, estimate(heap[i]));
+        Arrays.sort(words);
+        return new HeavyHitterIterator(words);
+    }
+
+    /**
+     * Adds a word to the index.
+     *
+     * @param item the word to be added.
+     * @throws IllegalArgumentException if the item is null.
+     */
+    @Override
+    public void add(String item) throws IllegalArgumentException {
+        add(item, 1);
+    }
+
+    /**
+     * Adds count occurrences of a word to the index.
+     *
+     * @param item  the word to be added.
+     * @param count the number of occurrences to be added.
+     * @throws IllegalArgumentException if the item is null or the count is not
+     *                                  positive.
+     */
+    @Override
+    public void add(String item, int count) throws IllegalArgumentException {
+        if (item == null)
+            throw new IllegalArgumentException("can not add null element");
+        if (count <= 0)
+            throw new IllegalArgumentException("count must be positive");
+
+        total += count;
+        long hash = hash(item);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+
+        // conservative update: raise only the counters below the new estimate
+        int estimate = Integer.MAX_VALUE;
+        for (int row = 0; row < depth; row++)
+            estimate = Math.min(estimate, sketch[cell(row, h1, h2)]);
+        estimate = (int) Math.min(Integer.MAX_VALUE, (long) estimate + count);
+        for (int row = 0; row < depth; row++) {
+            int c = cell(row, h1, h2);
+            if (sketch[c] < estimate)
+                sketch[c] = estimate;
+        }
+
+        Entry e = tracked.get(item);
+        if (e != null) {
+            e.count = (int) Math.min(Integer.MAX_VALUE, (long) e.count + count);
+            siftDown(e.position);
+        } else if (heapSize < capacity) {
+            e = new Entry(item, estimate);
+            tracked.put(item, e);
+            e.position = heapSize;
+            heap[heapSize++] = e;
+            siftUp(e.position);
+        } else if (estimate > heap[0].count) {
+            // replace the least frequent heavy hitter
+            Entry min = heap[0];
+            tracked.remove(min.word);
+            min.word = item;
+            min.count = estimate;
+            tracked.put(item, min);
+            siftDown(0);
+        }
+    }
+
+    /**
+     * Always throws, since words cannot be removed from a sketch.
+     *
+     * @param item the word to be removed.
+     * @throws UnsupportedOperationException always.
+     */
+    @Override
+    public void remove(String item) throws UnsupportedOperationException {
+        throw new UnsupportedOperationException("approximate index cannot remove words");
+    }
+
+    /**
+     * Removes the heavy hitters whose estimated count matches the predicate.
+     * The sketch is not changed, so get() still returns the estimate of a
+     * removed word, and a removed word that is added again returns to the
+     * heap with its whole estimate.
+     *
+     * @param onCount predicate applied to the estimated count of each heavy
+     *                hitter.
+     * @return the number of heavy hitters removed.
+     * @throws IllegalArgumentException if onCount is null.
+     */
+    @Override
+    public int removeIf(IntPredicate onCount) throws IllegalArgumentException {
+        if (onCount == null)
+            throw new IllegalArgumentException("predicate cannot be null");
+
+        int kept = 0;
+        for (int i = 0; i < heapSize; i++) {
+            Entry e = heap[i];
+            if (onCount.test(estimate(e)))
+                tracked.remove(e.word);
+            else
+                heap[kept++] = e;
+        }
+        int removed = heapSize - kept;
+        Arrays.fill(heap, kept, heapSize, null);
+        heapSize = kept;
+
+        // restore heap order over the remaining entries
+        for (int i = 0; i < heapSize; i++)
+            heap[i].position = i;
+        for (int i = heapSize / 2 - 1; i >= 0; i--)
+            siftDown(i);
+        return removed;
+    }
+
+    /**
+     * Returns the estimated count of the specified word. The estimate is never
+     * lower than the true count.
+     *
+     * @param item the word whose count is to be returned.
+     * @return the estimated count of the word, or -1 if the word has certainly
+     *         not been added.
+     * @throws IllegalArgumentException if the item is null.
+     */
+    @Override
+    public int get(String item) throws IllegalArgumentException {
+        if (item == null)
+            throw new IllegalArgumentException("can not get null element");
+
+        int estimate = sketchEstimate(item);
+        Entry e = tracked.get(item);
+        if (e != null)
+            estimate = Math.min(estimate, e.count);
+        return estimate == 0 ? -1 : estimate;
+    }
+
+    /**
+     * Returns the heavy hitters whose estimated count is at least the cutoff,
+     * in sorted order. If the cutoff is above getTrackingThreshold(), every
+     * word whose true count is at least the cutoff is included; words whose
+     * estimate is too high may be included as well.
+     *
+     * @param cutoff minimum estimated count of the words returned.
+     * @return the words above the cutoff.
+     */
+    public List<Word> wordsAbove(int cutoff) {
+        List<Word> words = new ArrayList<>();
+        for (Word w : this) {
+            if (w.getCount() >= cutoff)
+                words.add(w);
+        }
+        return words;
+    }
+
+    /**
+     * Returns the count above which words are guaranteed to be tracked as
+     * heavy hitters: the smallest count in the full heap, or 0 while the heap
+     * is not full.
+     *
+     * @return the tracking threshold.
+     */
+    public int getTrackingThreshold() {
+        return heapSize < capacity ? 0 : heap[0].count;
+    }
+
+    /**
+     * Returns the largest overestimate expected for any word, epsilon times
+     * the number of words added so far, where epsilon is e divided by the
+     * width of the sketch.
+     *
+     * @return the error bound of the estimates.
+     */
+    public long getErrorBound() {
+        return (long) Math.ceil(Math.E * total / width);
+    }
+
+    /**
+     * Returns the number of words added so far.
+     *
+     * @return the number of words added.
+     */
+    public long getTotal() {
+        return total;
+    }
+
+    /**
+     * Returns the number of heavy hitters, which is at most the capacity.
+     *
+     * @return the size of the index.
+     */
+    @Override
+    public int size() {
+        return heapSize;
+    }
+
+    /**
+     * Returns the estimated count of a heavy hitter.
+     *
+     * @param e the heavy hitter.
+     * @return the smaller of its heap count and its sketch estimate.
+     */
+    private int estimate(Entry e) {
+        return Math.min(e.count, sketchEstimate(e.word));
+    }
+
+    /**
+     * Returns the smallest of the counters of a word.
+     *
+     * @param item the word.
+     * @return the sketch estimate of the word.
+     */
+    private int sketchEstimate(String item) {
+        long hash = hash(item);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32) | 1;
+        int estimate = Integer.MAX_VALUE;
+        for (int row = 0; row < depth; row++)
+            estimate = Math.min(estimate, sketch[cell(row, h1, h2)]);
+        return estimate;
+    }
+
+    /**
+     * Returns the position in the sketch of the counter of a word in a row.
+     * The column is derived from two hash values (h1 + row * h2), which
+     * behaves like independent hash functions per row.
+     *
+     * @param row the row.
+     * @param h1  the first hash value of the word.
+     * @param h2  the second hash value of the word.
+     * @return the position of the counter.
+     */
+    private int cell(int row, int h1, int h2) {
+        return row * width + ((h1 + row * h2) & (width - 1));
+    }
+
+    /**
+     * Computes a 64-bit hash of a word. String.hashCode() is not used since
+     * words with equal hash codes would share their counters in every row.
+     *
+     * @param item the word.
+     * @return the hash.
+     */
+    private static long hash(String item) {
+        long h = 0xCBF29CE484222325L;
+        for (int i = 0; i < item.length(); i++) {
+            h ^= item.charAt(i);
+            h *= 0x100000001B3L;
+        }
+        // final mix, so that all bits depend on all characters
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        return h ^ (h >>> 33);
+    }
+
+    /**
+     * Moves the heap entry at the given position up to restore heap order.
+     *
+     * @param i position of the entry.
+     */
+    private void siftUp(int i) {
+        Entry e = heap[i];
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (heap[parent].count <= e.count)
+                break;
+            heap[i] = heap[parent];
+            heap[i].position = i;
+            i = parent;
+        }
+        heap[i] = e;
+        e.position = i;
+    }
+
+    /**
+     * Moves the heap entry at the given position down to restore heap order.
+     *
+     * @param i position of the entry.
+     */
+    private void siftDown(int i) {
+        Entry e = heap[i];
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= heapSize)
+                break;
+            if (child + 1 < heapSize && heap[child + 1].count < heap[child].count)
+                child++;
+            if (e.count <= heap[child].count)
+                break;
+            heap[i] = heap[child];
+            heap[i].position = i;
+            i = child;
+        }
+        heap[i] = e;
+        e.position = i;
+    }
+
+    /**
+     * Compares the specified object with this index for equality.
+     * Returns true if the given object is also an instance of Index, the two
+     * indexes have the same size, and all corresponding pairs of elements are
+     * equal.
+     *
+     * @param o the object to be compared for equality with this index.
+     * @return true if the specified object is equal to this index.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (o == null)
+            return false;
+
+        if (o == this)
+            return true;
+
+        if (!(o instanceof Index))
+            return false;
+
+        Index obj = (Index) o;
+
+        if (this.size() != obj.size())
+            return false;
+
+        // using two iterators to iterate through two indexes and checks the equality
+        // for each data value
+        Iterator<Word> it1 = this.iterator();
+        Iterator<Word> it2 = obj.iterator();
+
+        while (it1.hasNext() && it2.hasNext()) {
+            Word data1 = it1.next();
+            Word data2 = it2.next();
+
+            if (!data1.equals(data2))
+                return false;
+
+        }
+
+        return !it1.hasNext() && !it2.hasNext();
+
+    }
+
+    /**
+     * Returns a hash code for this index, consistent with equals().
+     *
+     * @return the hash code of this index.
+     */
+    @Override
+    public int hashCode() {
+        return Index.hashCodeOf(this);
+    }
+
+    /**
+     * Returns the string representation of this index.
+     * The string representation consists of a list of the heavy hitters in
+     * sorted order enclosed in square brackets ("[]").
+     * Adjacent elements are separated by the characters ", " (comma and space).
+     *
+     * @return the string representation of this index.
+     */
+    public String toString() {
+        if (size() == 0) {
+            return "[]";
+        }
+
+        StringBuilder str = new StringBuilder("[");
+        Iterator<Word> it = iterator();
+
+        if (it.hasNext()) {
+            str.append(it.next());
+        }
+
+        while (it.hasNext()) {
+            str.append(", ").append(it.next());
+        }
+
+        return str.append("]").toString();
+    }
+
+    /**
+     * A heavy hitter: a word, an upper bound of its count, and its position in
+     * the heap.
+     */
+    private static class Entry {
+        String word;
+        int count;
+        int position;
+
+        /**
+         * Constructs a heavy hitter.
+         *
+         * @param word  the word.
+         * @param count the upper bound of its count.
+         */
+        Entry(String word, int count) {
+            this.word = word;
+            this.count = count;
+        }
+    }
+
+    /**
+     * Implements the Iterator interface over a sorted snapshot of the heavy
+     * hitters.
+     */
+    private static class HeavyHitterIterator implements Iterator<Word> {
+        private final Word[] words;
+        private int next = 0;
+
+        /**
+         * Constructs an iterator over the given sorted words.
+         *
+         * @param words the heavy hitters in sorted order.
+         */
+        HeavyHitterIterator(Word[] words) {
+            this.words = words;
+        }
+
+        /**
+         * Checks if there are more elements in the iteration.
+         *
+         * @return true if the iteration has more elements.
+         */
+        @Override
+        public boolean hasNext() {
+            return next < words.length;
+        }
+
+        /**
+         * Returns the next element in the iteration.
+         *
+         * @return the next Word in the iteration.
+         * @throws NoSuchElementException if the iteration has no more elements.
+         */
+        @Override
+        public Word next() throws NoSuchElementException {
+            if (!hasNext())
+                throw new NoSuchElementException("the end of the index reached");
+            return words[next++];
+        }
+
+        /**
+         * Always throws, since words cannot be removed from a sketch.
+         *
+         * @throws UnsupportedOperationException always.
+         */
+        @Override
+        public void remove() throws UnsupportedOperationException {
+            throw new UnsupportedOperationException("approximate index cannot remove words");
+        }
+    }
+}
@@ -1,9 +1,11 @@
 package project5;
 
+import java.util.ArrayDeque;
+import java.util.ConcurrentModificationException;
+import java.util.Deque;
 import java.util.Iterator;
-import java.util.LinkedList;
 import java.util.NoSuchElementException;
-import java.util.Queue;
+import java.util.function.IntPredicate;
 
 /**
  * Represents a Binary Search Tree structure to store and manage Word objects.
@@ -18,6 +20,7 @@ import java.util.Queue;
 public class BSTIndex implements Index {
     private Node root = null;
     private int size = 0;
+    private int modCount = 0;
 
     /**
      * Provides an iterator for the BSTIndex.
@@ -42,13 +45,31 @@ public class BSTIndex implements Index {
      */
     @Override
     public void add(String item) throws IllegalArgumentException {
+        add(item, 1);
+    }
+
+    /**
+     * Adds count occurrences of a word to the BSTIndex. If the word already
+     * exists, its count is increased by count.
+     *
+     * @param item  the word to be added.
+     * @param count the number of occurrences to be added.
+     * @throws IllegalArgumentException if the provided item is null or the count
+     *                                  is not positive.
+     */
+    @Override
+    public void add(String item, int count) throws IllegalArgumentException {
         if (item == null) {
             throw new IllegalArgumentException("Cannot add null element");
         }
+        if (count <= 0) {
+            throw new IllegalArgumentException("count must be positive");
+        }
 
         if (root == null) {
-            root = new Node(new Word(item));
+            root = new Node(new Word(item, count));
             size++;
+            modCount++;
             return;
         }
 
@@ -65,23 +86,26 @@ public class BSTIndex implements Index {
                 tmp = cur;
                 cur = cur.left;
             } else {
-                cur.word.incrementCount();
+                cur.word.addCount(count);
 
                 return;
             }
         }
 
-        Node newNode = new Node(new Word(item));
+        Node newNode = new Node(new Word(item, count));
         if (item.compareTo(tmp.word.getWord()) > 0) {
             tmp.right = newNode;
         } else {
             tmp.left = newNode;
         }
         size++;
+        modCount++;
     }
 
     /**
-     * Removes a word from the BSTIndex.
+     * Removes a word from the BSTIndex. The tree is descended and relinked
+     * in a loop, so removing from a degenerate tree does not overflow the
+     * stack.
      *
      * @param item the word to be removed.
      * @throws IllegalArgumentException if the provided item is null.
@@ -91,69 +115,154 @@ public class BSTIndex implements Index {
         if (item == null)
             throw new IllegalArgumentException("cannot remove a node whose name is null");
 
-        this.root = removeHelper(item, this.root);
+        Node parent = null;
+        Node cur = root;
+        while (cur != null) {
+            int compare = cur.word.getWord().compareTo(item);
+            if (compare == 0)
+                break;
+            parent = cur;
+            cur = compare > 0 ? cur.left : cur.right;
+        }
+        if (cur == null)
+            return;
+
+        // a node with two children takes over its successor's word, and the
+        // successor, which has no left child, is unlinked instead
+        if (cur.left != null && cur.right != null) {
+            parent = cur;
+            Node successor = cur.right;
+            while (successor.left != null) {
+                parent = successor;
+                successor = successor.left;
+            }
+            cur.word = successor.word;
+            cur = successor;
+        }
 
+        Node child = cur.left != null ? cur.left : cur.right;
+        if (parent == null)
+            root = child;
+        else if (parent.left == cur)
+            parent.left = child;
+        else
+            parent.right = child;
+        size--;
+        modCount++;
     }
 
     /**
-     * Recursively removes the specified item from the tree.
+     * Removes every word whose count satisfies the given predicate. The words
+     * that remain are collected in order during one traversal and the tree is
+     * rebuilt from them, perfectly balanced, in linear time.
      *
-     * @param item The word to be removed.
-     * @param cur  The current node being inspected.
-     * @return The updated node after removal.
+     * @param onCount predicate applied to the count of each word.
+     * @return the number of words removed.
+     * @throws IllegalArgumentException if onCount is null.
      */
-    private Node removeHelper(String item, Node cur) {
-
-        if (cur == null) {
-            return null;
+    @Override
+    public int removeIf(IntPredicate onCount) throws IllegalArgumentException {
+        if (onCount == null)
+            throw new IllegalArgumentException("predicate cannot be null");
+
+        Word[] kept = inOrder();
+        int count = 0;
+        for (Word w : kept) {
+            if (!onCount.test(w.getCount()))
+                kept[count++] = w;
         }
 
-        int compare = cur.word.getWord().compareTo(item);
-
-        if (compare > 0) {
-            cur.left = removeHelper(item, cur.left);
-        }
-        else if (compare < 0) {
-            cur.right = removeHelper(item, cur.right);
+        int removed = size - count;
+        if (removed > 0) {
+            root = buildBalanced(kept, 0, count);
+            size = count;
+            modCount++;
         }
-        else {
-            if (cur.left == null && cur.right == null) {
-                size--;
-                return null;
-            }
-            else if (cur.left == null) {
-                size--;
-                return cur.right;
-            }
-            else if (cur.right == null) {
-                size--;
-                return cur.left;
-            }
-            else {
-                Node tmp = traceSuccessor(cur.right);
-                cur.word = tmp.word;
-                cur.right = removeHelper(tmp.word.getWord(), cur.right);
+        return removed;
+    }
+
+    /**
+     * Adds the counts of all words of another index to this tree. Since both
+     * indexes iterate in sorted order, their words are merged in a single
+     * linear pass and the tree is rebuilt from the result, perfectly balanced,
+     * instead of being searched once per word.
+     *
+     * @param other the index whose counts should be added.
+     * @throws IllegalArgumentException if other is null.
+     */
+    @Override
+    public void merge(Index other) throws IllegalArgumentException {
+        if (other == null)
+            throw new IllegalArgumentException("can not merge null index");
+
+        Word[] mine = inOrder();
+        Word[] merged = new Word[size + other.size()];
+        int i = 0;
+        int count = 0;
+        for (Word w : other) {
+            while (i < mine.length && mine[i].compareTo(w) < 0)
+                merged[count++] = mine[i++];
+            if (i < mine.length && mine[i].compareTo(w) == 0) {
+                mine[i].addCount(w.getCount());
+                merged[count++] = mine[i++];
+            } else {
+                merged[count++] = new Word(w.getWord(), w.getCount());
             }
         }
-        return cur;
+        while (i < mine.length)
+            merged[count++] = mine[i++];
+
+        root = buildBalanced(merged, 0, count);
+        size = count;
+        modCount++;
     }
 
     /**
-     * Traces and returns the in-order successor of the given node.
+     * Returns the words of the tree in sorted order, collected by an iterative
+     * in-order traversal, so that a degenerate tree cannot overflow the call
+     * stack.
      *
-     * @param n The node whose successor is to be found.
-     * @return The in-order successor of the given node.
+     * @return the words of the tree in sorted order.
      */
-    private Node traceSuccessor(Node n) {
-        while (n.left != null) {
-            n = n.left;
+    private Word[] inOrder() {
+        Word[] words = new Word[size];
+        int count = 0;
+        Deque<Node> stack = new ArrayDeque<>();
+        Node cur = root;
+        while (cur != null || !stack.isEmpty()) {
+            while (cur != null) {
+                stack.push(cur);
+                cur = cur.left;
+            }
+            cur = stack.pop();
+            words[count++] = cur.word;
+            cur = cur.right;
         }
+        return words;
+    }
 
+    /**
+     * Builds a balanced tree from a sorted range of words.
+     *
+     * @param words sorted array of words.
+     * @param from  first position of the range (inclusive).
+     * @param to    last position of the range (exclusive).
+     * @return the root of the new tree, or null if the range is empty.
+     */
+    private Node buildBalanced(Word[] words, int from, int to) {
+        if (from >= to)
+            return null;
+
+        int mid = (from + to) >>> 1;
+        Node n = new Node(words[mid]);
+        n.left = buildBalanced(words, from, mid);
+        n.right = buildBalanced(words, mid + 1, to);
         return n;
     }
 
     /**
      * Retrieves the count of the specified word in the tree.
+     * The tree is descended in a loop rather than by recursion.
      *
      * @param item The word whose count is to be returned.
      * @throws NullPointerException if the provided String item is null.
@@ -164,36 +273,22 @@ public class BSTIndex implements Index {
         if (item == null)
             throw new IllegalArgumentException("can not get null element");
 
-        if (this.size() == 0)
-            return -1;
-
-        return getHelper(item, this.root);
-    }
-
-    /**
-     * Recursively retrieves the count of the specified word, starting from the
-     * given node.
-     *
-     * @param item The word whose count is to be retrieved.
-     * @param cur  The current node being inspected.
-     * @return The count of the word, or -1 if not found.
-     */
-    private int getHelper(String item, Node cur) {
-        if (cur == null)
-            return -1;
-
-        int compare = cur.word.getWord().compareTo(item);
-
-        if (compare == 0) {
-            return cur.word.getCount();
-
-        } else if (compare > 0)
-            return getHelper(item, cur.left);
+        Node cur = this.root;
+        while (cur != null) {
+            int compare = item.compareTo(cur.word.getWord());
 
-        else {
-            return getHelper(item, cur.right);
+            // branching on less and greater first keeps the JIT from choosing
+            // the child with a conditional move, which would make every level
+            // wait for the comparison before loading the next node
+            if (compare < 0)
+                cur = cur.left;
+            else if (compare > 0)
+                cur = cur.right;
+            else
+                return cur.word.getCount();
         }
 
+        return -1;
     }
 
     /**
@@ -249,6 +344,16 @@ public class BSTIndex implements Index {
 
     }
 
+    /**
+     * Returns a hash code for this BSTIndex, consistent with equals().
+     *
+     * @return the hash code of this BSTIndex.
+     */
+    @Override
+    public int hashCode() {
+        return Index.hashCodeOf(this);
+    }
+
     /**
      * Returns the string representation of this BSTIndex.
      * The string representation consists of a list of all Word objects in sorted
@@ -317,39 +422,35 @@ public class BSTIndex implements Index {
      * Implements the Iterator interface, providing a way to iterate through the
      * BSTIndex in sorted order and able to remove specified item.
      * This iterator traverses the tree using in-order traversal.
-     * This iterator is implemented using a queue structure
+     * This iterator is implemented lazily using an explicit stack of the nodes
+     * still to be visited, so it uses O(height) memory and never recurses.
      */
     private class BSTIterator implements Iterator<Word> {
 
-        private Queue<Word> queue = null;
-        private Word nextToReturn = null;
+        private Deque<Node> stack = new ArrayDeque<>();
+        private Word lastReturned = null;
+        private int expectedModCount = modCount;
 
         /**
-         * Constructs an iterator for the given BSTIndex.
-         * traverse the tree in-order inside the constructor to store Word elements in
-         * queue in order.
+         * Constructs an iterator for the given BSTIndex, positioned at its
+         * smallest word.
          *
          * @param root The root of the BSTIndex.
          */
         public BSTIterator(Node root) {
-            this.queue = new LinkedList<>();
-            inOrder(root);
+            pushLeft(root);
         }
 
         /**
-         * Performs an in-order traversal of the tree, starting from the given node,
-         * and stores the Word objects in a queue.
+         * Pushes the given node and all of its left descendants onto the stack.
          *
-         * @param n The starting node for traversal.
+         * @param n The starting node.
          */
-        private void inOrder(Node n) {
-            if (n == null) {
-                return;
+        private void pushLeft(Node n) {
+            while (n != null) {
+                stack.push(n);
+                n = n.left;
             }
-
-            inOrder(n.left);
-            queue.offer((n.word));
-            inOrder(n.right);
         }
 
         /**
@@ -359,39 +460,71 @@ public class BSTIndex implements Index {
          */
         @Override
         public boolean hasNext() {
-            return !queue.isEmpty();
+            return !stack.isEmpty();
         }
 
         /**
          * Returns the next element in the iteration.
          *
          * @return The next Word object in the iteration.
-         * @throws NoSuchElementException if the iteration has no more elements.
+         * @throws NoSuchElementException          if the iteration has no more
+         *                                         elements.
+         * @throws ConcurrentModificationException if the tree was structurally
+         *                                         modified outside this iterator.
          */
         @Override
         public Word next() throws NoSuchElementException {
+            if (expectedModCount != modCount) {
+                throw new ConcurrentModificationException("index modified during iteration");
+            }
             if (!hasNext()) {
                 throw new NoSuchElementException("end of the tree!");
             }
-            nextToReturn = queue.poll();
-            return nextToReturn;
+
+            Node n = stack.pop();
+            pushLeft(n.right);
+            lastReturned = n.word;
+            return lastReturned;
         }
 
         /**
          * Removes the last element returned by this iterator from the BSTIndex.
-         * 
-         * @throws IllegalStateException if the next method has not yet been called,
-         *                               or the remove method has already been called
-         *                               after the last call to next.
+         * Removing a node with two children moves its successor's word into it,
+         * so afterwards the stack is rebuilt along the path to the first word
+         * greater than the removed one.
+         *
+         * @throws IllegalStateException           if the next method has not yet
+         *                                         been called, or the remove
+         *                                         method has already been called
+         *                                         after the last call to next.
+         * @throws ConcurrentModificationException if the tree was structurally
+         *                                         modified outside this iterator.
          */
+        @Override
         public void remove() throws IllegalStateException {
-            if (nextToReturn == null) {
+            if (lastReturned == null) {
                 throw new IllegalStateException("next() must be called before remove method");
             }
+            if (expectedModCount != modCount) {
+                throw new ConcurrentModificationException("index modified during iteration");
+            }
 
-            BSTIndex.this.remove(nextToReturn.getWord());
-            nextToReturn = null;
+            String removed = lastReturned.getWord();
+            BSTIndex.this.remove(removed);
+            expectedModCount = modCount;
+            lastReturned = null;
+
+            stack.clear();
+            Node cur = root;
+            while (cur != null) {
+                if (cur.word.getWord().compareTo(removed) > 0) {
+                    stack.push(cur);
+                    cur = cur.left;
+                } else {
+                    cur = cur.right;
+                }
+            }
         }
 
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,504 @@
+package project5;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.PathMatcher;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * BatchIndexer counts the words of many files, given as a directory or a
+ * glob pattern, within a single JVM.
+ * The work is split into three pipelined stages running in their own threads
+ * and connected by bounded queues:
+ * <ul>
+ * <li>read: reads the files in chunks of raw bytes, which a
+ * DecompressingInputStream decompresses in another thread for gzip
+ * compressed files,</li>
+ * <li>tokenize: turns the chunks into batches of words using
+ * ByteTokenizer,</li>
+ * <li>index: adds the batches of words to the index.</li>
+ * </ul>
+ * While one chunk is tokenized the next one is being read, so disk reads
+ * overlap with CPU work. When a stage is slower than the one before it, the
+ * queue between them fills up and the faster stage blocks; the time every
+ * stage spends busy, waiting for input and blocked on a full queue is
+ * recorded and reported by printStatistics(), which shows the bottleneck.
+ *
+ * Usage: java BatchIndexer directoryOrGlob [snapshotFile]
+ *
+ * @author Olivia Yu
+ * @version October 17, 2026
+ */
+public class BatchIndexer {
+
+    /** Maximum number of bytes read from a file at once. */
+    private static final int CHUNK_SIZE = 1 << 20;
+
+    /** Number of words passed from the tokenize to the index stage at once. */
+    private static final int BATCH_SIZE = 8192;
+
+    /** Marks the end of the chunks. */
+    private static final Chunk END_OF_CHUNKS = new Chunk(new byte[0], 0, true);
+
+    /** Marks the end of the batches. */
+    private static final String[] END_OF_BATCHES = new String[0];
+
+    private final int queueCapacity;
+    private Stage read;
+    private Stage tokenize;
+    private Stage index;
+
+    /**
+     * Constructs an indexer whose queues hold up to 16 items.
+     */
+    public BatchIndexer() {
+        this(16);
+    }
+
+    /**
+     * Constructs an indexer whose queues hold up to the given number of items.
+     *
+     * @param queueCapacity capacity of the queues between the stages.
+     * @throws IllegalArgumentException if queueCapacity is not positive.
+     */
+    public BatchIndexer(int queueCapacity) throws IllegalArgumentException {
+        if (queueCapacity <= 0)
+            throw new IllegalArgumentException("queue capacity must be positive");
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * Returns the regular files selected by the given name: the file itself,
+     * all files below a directory, or all files matching a glob pattern such
+     * as "corpus/*.txt" or "corpus/**.txt". The files are sorted by path.
+     *
+     * @param directoryOrGlob a file name, directory name or glob pattern.
+     * @return the selected files.
+     * @throws IOException if a directory cannot be read or nothing matches.
+     * @throws IllegalArgumentException if directoryOrGlob is null.
+     */
+    public static List<File> findFiles(String directoryOrGlob)
+            throws IOException, IllegalArgumentException {
+        if (directoryOrGlob == null)
+            throw new IllegalArgumentException("file name cannot be null");
+
+        Path base;
+        PathMatcher matcher;
+        int wildcard = indexOfWildcard(directoryOrGlob);
+        if (wildcard < 0) {
+            base = Paths.get(directoryOrGlob);
+            matcher = path -> true;
+        } else {
+            // walk the longest directory prefix that contains no wildcard
+            int slash = directoryOrGlob.lastIndexOf(File.separatorChar, wildcard);
+            if (File.separatorChar != '/')
+                slash = Math.max(slash, directoryOrGlob.lastIndexOf('/', wildcard));
+            base = Paths.get(slash < 0 ? "." : directoryOrGlob.substring(0, slash + 1));
+            String pattern = slash < 0 ? "./" + directoryOrGlob : directoryOrGlob;
+            PathMatcher glob = FileSystems.getDefault().getPathMatcher("glob:" + pattern);
+            matcher = path -> glob.matches(path);
+        }
+
+        if (!Files.exists(base))
+            throw new IOException(String.format("File: %s  does not exist.", base));
+
+        List<File> files;
+        try (Stream<Path> paths = Files.walk(base)) {
+            files = paths.filter(Files::isRegularFile).filter(matcher::matches).sorted()
+                    .map(Path::toFile).collect(Collectors.toList());
+        }
+        if (files.isEmpty())
+            throw new IOException(String.format("No files match %s.", directoryOrGlob));
+        return files;
+    }
+
+    /**
+     * Returns the position of the first glob wildcard in a name, or -1 if the
+     * name is a plain file or directory name.
+     *
+     * @param name the name.
+     * @return the position of the first wildcard character, or -1.
+     */
+    private static int indexOfWildcard(String name) {
+        for (int i = 0; i < name.length(); i++) {
+            if ("*?[{".indexOf(name.charAt(i)) >= 0)
+                return i;
+        }
+        return -1;
+    }
+
+    /**
+     * Adds every word of the given files to the index. The read and tokenize
+     * stages run in their own threads; the index stage runs in the calling
+     * thread, so the index does not need to be thread-safe. Words never span
+     * two files.
+     *
+     * @param files  the UTF-8 encoded input files.
+     * @param target the index to which the words are added.
+     * @return the number of words read from the files.
+     * @throws IOException if a file cannot be read, or a stage failed with a
+     *                     checked exception.
+     * @throws IllegalArgumentException if files or target is null.
+     */
+    public long addAllWords(List<File> files, Index target)
+            throws IOException, IllegalArgumentException {
+        if (files == null || target == null)
+            throw new IllegalArgumentException("files and index cannot be null");
+
+        BlockingQueue<Chunk> chunks = new ArrayBlockingQueue<>(queueCapacity);
+        BlockingQueue<String[]> batches = new ArrayBlockingQueue<>(queueCapacity);
+        read = new Stage("read", "bytes");
+        tokenize = new Stage("tokenize", "words");
+        index = new Stage("index", "words");
+        Throwable[] failure = new Throwable[1];
+
+        // a failing stage still ends its output, so the stages after it finish
+        Thread reader = new Thread(() -> {
+            try {
+                readFiles(files, chunks);
+            } catch (InterruptedException e) {
+                // the pipeline was cancelled; the end marker is not put
+                Thread.currentThread().interrupt();
+            } catch (Throwable e) {
+                fail(failure, e);
+            } finally {
+                end(chunks, END_OF_CHUNKS, read);
+            }
+        }, "BatchIndexer-read");
+        Thread tokenizer = new Thread(() -> {
+            try {
+                tokenizeChunks(chunks, batches);
+            } catch (InterruptedException e) {
+                // the pipeline was cancelled; the end marker is not put
+                Thread.currentThread().interrupt();
+            } catch (Throwable e) {
+                fail(failure, e);
+            } finally {
+                end(batches, END_OF_BATCHES, tokenize);
+            }
+        }, "BatchIndexer-tokenize");
+
+        reader.start();
+        tokenizer.start();
+        boolean completed = false;
+        try {
+            long start = System.nanoTime();
+            while (true) {
+                String[] batch = take(batches, index);
+                if (batch == END_OF_BATCHES)
+                    break;
+                for (String w : batch)
+                    target.add(w);
+                index.units += batch.length;
+            }
+            index.nanos = System.nanoTime() - start;
+            // if the tokenize stage failed, the read stage may still be
+            // blocked on a full queue
+            synchronized (failure) {
+                completed = failure[0] == null;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted while indexing", e);
+        } finally {
+            if (!completed) {
+                reader.interrupt();
+                tokenizer.interrupt();
+            }
+            joinUninterruptibly(reader);
+            joinUninterruptibly(tokenizer);
+        }
+
+        Throwable e = failure[0];
+        if (e instanceof IOException)
+            throw (IOException) e;
+        if (e instanceof RuntimeException)
+            throw (RuntimeException) e;
+        if (e instanceof Error)
+            throw (Error) e;
+        if (e != null)
+            throw new IOException("a pipeline stage failed", e);
+        return index.units;
+    }
+
+    /**
+     * Keeps the first exception or error thrown by a stage, which is thrown
+     * again by the calling thread once the stages have finished.
+     *
+     * @param failure holds the first failure.
+     * @param e       the exception or error that stopped a stage.
+     */
+    private static void fail(Throwable[] failure, Throwable e) {
+        synchronized (failure) {
+            if (failure[0] == null)
+                failure[0] = e;
+            else
+                failure[0].addSuppressed(e);
+        }
+    }
+
+    /**
+     * Puts the end marker of a stage, unless the pipeline was cancelled and no
+     * stage is waiting for it any more.
+     *
+     * @param queue    the queue the stage produces to.
+     * @param end      the end marker.
+     * @param producer the producing stage.
+     */
+    private static <T> void end(BlockingQueue<T> queue, T end, Stage producer) {
+        try {
+            put(queue, end, producer);
+        } catch (InterruptedException e) {
+            // the pipeline was cancelled
+        }
+    }
+
+    /**
+     * The read stage: reads every file in chunks and passes them on. The
+     * caller ends the chunks with END_OF_CHUNKS, also when reading fails.
+     *
+     * @param files  the input files.
+     * @param chunks the queue to the tokenize stage.
+     * @throws IOException if a file cannot be read.
+     * @throws InterruptedException if the pipeline was cancelled.
+     */
+    private void readFiles(List<File> files, BlockingQueue<Chunk> chunks)
+            throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        for (File f : files) {
+            boolean compressed = DecompressingInputStream.isCompressed(f);
+            try (InputStream in = compressed ? DecompressingInputStream.open(f)
+                    : new FileInputStream(f)) {
+                // the decompressed length is not known in advance
+                long remaining = compressed ? CHUNK_SIZE : f.length();
+                while (true) {
+                    // one byte more than expected, so that the end of the
+                    // file shows as a short read
+                    byte[] data = new byte[(int) Math.min(CHUNK_SIZE, remaining + 1)];
+                    int length = in.readNBytes(data, 0, data.length);
+                    if (!compressed)
+                        remaining -= length;
+                    boolean last = length < data.length;
+                    read.units += length;
+                    put(chunks, new Chunk(data, length, last), read);
+                    if (last)
+                        break;
+                }
+            }
+    }
+        read.nanos = System.nanoTime() - start;
+    }
+
+    /**
+     * The tokenize stage: splits the chunks into words and passes them on in
+     * batches. The caller ends the batches with END_OF_BATCHES, also when
+     * tokenizing fails.
+     *
+     * @param chunks  the queue from the read stage.
+     * @param batches the queue to the index stage.
+     * @throws InterruptedException if the pipeline was cancelled.
+     */
+    private void tokenizeChunks(BlockingQueue<Chunk> chunks, BlockingQueue<String[]> batches)
+            throws InterruptedException {
+        long start = System.nanoTime();
+        List<String> batch = new ArrayList<>(BATCH_SIZE);
+        ByteTokenizer tokenizer = new ByteTokenizer(batch::add);
+
+        while (true) {
+            Chunk chunk = take(chunks, tokenize);
+            if (chunk == END_OF_CHUNKS)
+                break;
+            tokenizer.feed(chunk.data, 0, chunk.length);
+            if (chunk.last)
+                tokenizer.finish();
+            if (batch.size() >= BATCH_SIZE) {
+                put(batches, batch.toArray(new String[0]), tokenize);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty())
+            put(batches, batch.toArray(new String[0]), tokenize);
+        tokenize.units = tokenizer.getWordCount();
+        tokenize.nanos = System.nanoTime() - start;
+    }
+
+    /**
+     * Puts an item into a queue, recording the time the producing stage is
+     * blocked because the queue is full.
+     *
+     * @param queue    the queue.
+     * @param item     the item.
+     * @param producer the producing stage.
+     * @throws InterruptedException if the pipeline was cancelled.
+     */
+    private static <T> void put(BlockingQueue<T> queue, T item, Stage producer)
+            throws InterruptedException {
+        producer.puts++;
+        producer.queued += queue.size();
+        if (!queue.offer(item)) {
+            producer.fullPuts++;
+            long start = System.nanoTime();
+            queue.put(item);
+            producer.blockedNanos += System.nanoTime() - start;
+        }
+    }
+
+    /**
+     * Takes an item from a queue, recording the time the consuming stage waits
+     * because the queue is empty.
+     *
+     * @param queue    the queue.
+     * @param consumer the consuming stage.
+     * @return the item.
+     * @throws InterruptedException if the pipeline was cancelled.
+     */
+    private static <T> T take(BlockingQueue<T> queue, Stage consumer) throws InterruptedException {
+        T item = queue.poll();
+        if (item == null) {
+            long start = System.nanoTime();
+            item = queue.take();
+            consumer.waitNanos += System.nanoTime() - start;
+        }
+        return item;
+    }
+
+    /**
+     * Waits for a thread to end, even if the current thread is interrupted.
+     *
+     * @param t the thread.
+     */
+    private static void joinUninterruptibly(Thread t) {
+        boolean interrupted = false;
+        while (t.isAlive()) {
+            try {
+                t.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted)
+            Thread.currentThread().interrupt();
+    }
+
+    /**
+     * Prints the throughput of every stage of the last call to addAllWords,
+     * with the time spent waiting for input and blocked on a full output
+     * queue.
+     */
+    public void printStatistics() {
+        if (read == null)
+            return;
+        for (Stage s : Arrays.asList(read, tokenize, index))
+            System.out.println("INFO: " + s);
+    }
+
+    /**
+     * Counts the words of all selected files and reports the statistics of
+     * every stage. The index can be saved as a snapshot.
+     *
+     * @param args "directoryOrGlob [snapshotFile]"
+     * @throws IOException if a file cannot be read or written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: java BatchIndexer directoryOrGlob [snapshotFile]");
+            System.exit(1);
+        }
+
+        long start = System.nanoTime();
+        List<File> files = findFiles(args[0]);
+        BatchIndexer indexer = new BatchIndexer();
+        HashIndex index = new HashIndex();
+        long words = indexer.addAllWords(files, index);
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("INFO: %d files, %d words read, %d words stored in index.%n",
+                files.size(), words, index.size());
+        System.out.printf("INFO: Batch indexing took %d ns (~%.3f seconds).%n", elapsed, elapsed / 1e9);
+        indexer.printStatistics();
+
+        if (args.length > 1) {
+            int saved = IndexSnapshot.write(index, args[1]);
+            System.out.printf("INFO: %d words saved in snapshot %s.%n", saved, args[1]);
+        }
+    }
+
+    /**
+     * A chunk of bytes read from a file.
+     */
+    private static class Chunk {
+        final byte[] data;
+        final int length;
+        final boolean last;
+
+        /**
+         * Constructs a chunk.
+         *
+         * @param data   array holding the bytes.
+         * @param length number of bytes read into the array.
+         * @param last   true if this is the last chunk of its file.
+         */
+        Chunk(byte[] data, int length, boolean last) {
+            this.data = data;
+            this.length = length;
+            this.last = last;
+        }
+    }
+
+    /**
+     * The statistics of one stage. Each stage is updated by its own thread
+     * only, and read after that thread has ended.
+     */
+    private static class Stage {
+        final String name;
+        final String unit;
+        long units;
+        long nanos;
+        long waitNanos;
+        long blockedNanos;
+        long puts;
+        long fullPuts;
+        long queued;
+
+        /**
+         * Constructs the statistics of a stage.
+         *
+         * @param name name of the stage.
+         * @param unit what the stage counts.
+         */
+        Stage(String name, String unit) {
+            this.name = name;
+            this.unit = unit;
+        }
+
+        /**
+         * Returns the throughput of the stage, the time it was busy, waited
+         * for input and was blocked on its output queue, and how full that
+         * queue was when items were put into it.
+         *
+         * @return the statistics as one line.
+         */
+        @Override
+        public String toString() {
+            long busy = Math.max(1, nanos - waitNanos - blockedNanos);
+            String line = String.format("%-8s %12d %s in %8.3f s busy (%.1f M%s/s), waited %.3f s",
+                    name, units, unit, busy / 1e9, units * 1e3 / busy, unit, waitNanos / 1e9);
+            if (puts == 0)
+                return line;
+            return line + String.format(", blocked %.3f s on full queue "
+                    + "(%.0f%% of puts, average length %.1f)",
+                    blockedNanos / 1e9, 100.0 * fullPuts / puts, (double) queued / puts);
+        }
+    }
+}
@@ -0,0 +1,562 @@
+package project5;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.IntPredicate;
+
+/**
+ * Represents a counting index whose words are looked up by their UTF-8 bytes,
+ * given as (array, offset, length) slices, against a table of interned keys.
+ * The bytes of every distinct word are copied once into a shared arena and a
+ * String and Word object are created only the first time the word is seen;
+ * adding a word that is already in the index allocates nothing.
+ * Like HashIndex, the words are sorted only when iterator() is called and the
+ * sorted view is cached until a word is added or removed.
+ *
+ * @author Olivia Yu
+ * @version October 17, 2026
+ */
+public class ByteSliceIndex implements Index {
+
+    /** Largest expected size, whose table of twice the size still fits an array. */
+    static final int MAX_EXPECTED_SIZE = 1 << 29;
+
+    private Word[] words;
+    private int[] hashes;
+    private int[] keyOffsets;
+    private int[] keyLengths;
+    private byte[] arena;
+    private int arenaLength = 0;
+    private int size = 0;
+    private int modCount = 0;
+    private Word[] sorted = null;
+
+    /**
+     * Constructs a new empty ByteSliceIndex.
+     */
+    public ByteSliceIndex() {
+        this(1024);
+    }
+
+    /**
+     * Constructs a new empty ByteSliceIndex that can hold the given number of
+     * unique words before it has to grow.
+     *
+     * @param expectedSize the expected number of unique words.
+     * @throws IllegalArgumentException if expectedSize is negative or greater
+     *                                  than MAX_EXPECTED_SIZE.
+     */
+    public ByteSliceIndex(int expectedSize) throws IllegalArgumentException {
+        if (expectedSize < 0)
+            throw new IllegalArgumentException("expected size cannot be negative");
+        if (expectedSize > MAX_EXPECTED_SIZE)
+            throw new IllegalArgumentException("expected size cannot be greater than "
+                    + MAX_EXPECTED_SIZE);
+
+        int capacity = 16;
+        while (capacity < (long) expectedSize * 2) {
+            capacity <<= 1;
+        }
+        words = new Word[capacity];
+        hashes = new int[capacity];
+        keyOffsets = new int[capacity];
+        keyLengths = new int[capacity];
+        arena = new byte[capacity * 8];
+    }
+
+    /**
+     * Returns an iterator over the words of this index in their natural order.
+     * The words are sorted on the first call and the sorted view is reused by
+     * later calls until the index changes.
+     *
+     * @return an Iterator for the ByteSliceIndex.
+     */
+    @Override
+    public Iterator<Word> iterator() {
+        if (sorted == null) {
+            Word[] all = new Word[size];
+            int i = 0;
+            for (Word w : words) {
+                if (w != null)
+                    all[i++] = w;
+            }
+            Arrays.sort(all);
+            sorted = all;
+        }
+        return new SliceIterator(sorted);
+    }
+
+    /**
+     * Returns the k most frequent words of the index, ordered from the highest
+     * count to the lowest, with ties in alphabetical order. The hash table is
+     * scanned once with a heap of at most k words, without sorting it.
+     *
+     * @param k number of words to be returned.
+     * @return list of at most k most frequent words.
+     * @throws IllegalArgumentException if k is negative.
+     */
+    @Override
+    public List<Word> topK(int k) throws IllegalArgumentException {
+        return Index.mostFrequent(Arrays.stream(words).filter(Objects::nonNull)::iterator, size(), k);
+    }
+
+    /**
+     * Adds a word to the index. If the word already exists, its count is
+     * incremented.
+     *
+     * @param item the word to be added.
+     * @throws IllegalArgumentException if the item is null.
+     */
+    @Override
+    public void add(String item) throws IllegalArgumentException {
+        if (item == null)
+            throw new IllegalArgumentException("can not add null element");
+
+        byte[] bytes = item.getBytes(StandardCharsets.UTF_8);
+        add(bytes, 0, bytes.length, 1);
+    }
+
+    /**
+     * Adds count occurrences of a word to the index. If the word already
+     * exists, its count is increased by count.
+     *
+     * @param item  the word to be added.
+     * @param count the number of occurrences to be added.
+     * @throws IllegalArgumentException if the item is null or the count is not
+     *                                  positive.
+     */
+    @Override
+    public void add(String item, int count) throws IllegalArgumentException {
+        if (item == null)
+            throw new IllegalArgumentException("can not add null element");
+        if (count <= 0)
+            throw new IllegalArgumentException("count must be positive");
+
+        byte[] bytes = item.getBytes(StandardCharsets.UTF_8);
+        add(bytes, 0, bytes.length, count);
+    }
+
+    /**
+     * Adds the word encoded in UTF-8 by the given slice to the index. If the
+     * word already exists, its count is incremented without allocating any
+     * objects.
+     *
+     * @param bytes  array holding the UTF-8 encoded word.
+     * @param offset position of the first byte of the word.
+     * @param length number of bytes of the word.
+     * @throws IllegalArgumentException if bytes is null.
+     */
+    public void add(byte[] bytes, int offset, int length) throws IllegalArgumentException {
+        if (bytes == null)
+            throw new IllegalArgumentException("can not add null element");
+
+        add(bytes, offset, length, 1);
+    }
+
+    /**
+     * Adds count occurrences of the word stored as UTF-8 bytes in the given
+     * range.
+     *
+     * @param bytes  array holding the UTF-8 bytes of the word.
+     * @param offset position of the first byte of the word.
+     * @param length number of bytes of the word.
+     * @param count  the number of occurrences to be added.
+     */
+    private void add(byte[] bytes, int offset, int length, int count) {
+
+        int hash = hash(bytes, offset, length);
+        int mask = words.length - 1;
+        int i = hash & mask;
+
+        while (words[i] != null) {
+            if (hashes[i] == hash && keyEquals(i, bytes, offset, length)) {
+                words[i].addCount(count);
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+
+        if (arenaLength + length > arena.length)
+            arena = Arrays.copyOf(arena, Math.max(arena.length * 2, arenaLength + length));
+        System.arraycopy(bytes, offset, arena, arenaLength, length);
+
+        words[i] = new Word(new String(bytes, offset, length, StandardCharsets.UTF_8), count);
+        hashes[i] = hash;
+        keyOffsets[i] = arenaLength;
+        keyLengths[i] = length;
+        arenaLength += length;
+        size++;
+        modCount++;
+        sorted = null;
+
+        if (size * 2 > words.length)
+            resize(words.length * 2);
+    }
+
+    /**
+     * Removes the specified element from the index. Entries following the
+     * removed one in its probe sequence are shifted back so that no tombstones
+     * are left in the table. The bytes of the removed key stay in the arena
+     * until the table is resized.
+     *
+     * @param item the word to be removed.
+     * @throws IllegalArgumentException if the item is null.
+     */
+    @Override
+    public void remove(String item) throws IllegalArgumentException {
+        if (item == null)
+            throw new IllegalArgumentException("can not remove null element");
+
+        byte[] bytes = item.getBytes(StandardCharsets.UTF_8);
+        int i = indexOf(bytes, 0, bytes.length);
+        if (i < 0)
+            return;
+
+        int mask = words.length - 1;
+        int hole = i;
+        int next = (hole + 1) & mask;
+        while (words[next] != null) {
+            int home = hashes[next] & mask;
+            // move the entry into the hole if the hole lies between its home slot
+            // and its current slot (cyclically)
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                words[hole] = words[next];
+                hashes[hole] = hashes[next];
+                keyOffsets[hole] = keyOffsets[next];
+                keyLengths[hole] = keyLengths[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        words[hole] = null;
+
+        size--;
+        modCount++;
+        sorted = null;
+    }
+
+    /**
+     * Removes every word whose count satisfies the given predicate. The
+     * matching entries are cleared in one scan of the table and the remaining
+     * ones are rehashed once, compacting the key arena. A cached sorted view
+     * stays sorted, so it is filtered instead of being discarded.
+     *
+     * @param onCount predicate applied to the count of each word.
+     * @return the number of words removed.
+     * @throws IllegalArgumentException if onCount is null.
+     */
+    @Override
+    public int removeIf(IntPredicate onCount) throws IllegalArgumentException {
+        if (onCount == null)
+            throw new IllegalArgumentException("predicate cannot be null");
+
+        int removed = 0;
+        for (int i = 0; i < words.length; i++) {
+            if (words[i] != null && onCount.test(words[i].getCount())) {
+                words[i] = null;
+                removed++;
+            }
+        }
+        if (removed == 0)
+            return 0;
+
+        resize(words.length);
+        size -= removed;
+        modCount++;
+
+        if (sorted != null) {
+            Word[] kept = new Word[size];
+            int count = 0;
+            for (Word w : sorted) {
+                if (!onCount.test(w.getCount()))
+                    kept[count++] = w;
+            }
+            sorted = kept;
+        }
+        return removed;
+    }
+
+    /**
+     * Retrieves the count of the specified word in the index.
+     *
+     * @param item the word whose count is to be returned.
+     * @return the count of the word, or -1 if the word is not in the index.
+     * @throws IllegalArgumentException if the item is null.
+     */
+    @Override
+    public int get(String item) throws IllegalArgumentException {
+        if (item == null)
+            throw new IllegalArgumentException("can not get null element");
+
+        byte[] bytes = item.getBytes(StandardCharsets.UTF_8);
+        return get(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Retrieves the count of the word encoded in UTF-8 by the given slice.
+     *
+     * @param bytes  array holding the UTF-8 encoded word.
+     * @param offset position of the first byte of the word.
+     * @param length number of bytes of the word.
+     * @return the count of the word, or -1 if the word is not in the index.
+     */
+    public int get(byte[] bytes, int offset, int length) {
+        int i = indexOf(bytes, offset, length);
+        return i < 0 ? -1 : words[i].getCount();
+    }
+
+    /**
+     * Returns the number of unique words in the index.
+     *
+     * @return the size of the index.
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Finds the slot of the table holding the given word.
+     *
+     * @param bytes  array holding the UTF-8 encoded word.
+     * @param offset position of the first byte of the word.
+     * @param length number of bytes of the word.
+     * @return the slot of the word, or -1 if the word is not in the table.
+     */
+    private int indexOf(byte[] bytes, int offset, int length) {
+        int hash = hash(bytes, offset, length);
+        int mask = words.length - 1;
+        int i = hash & mask;
+
+        while (words[i] != null) {
+            if (hashes[i] == hash && keyEquals(i, bytes, offset, length))
+                return i;
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Checks whether the key stored in the given slot has the given bytes.
+     *
+     * @param slot   the slot of the table.
+     * @param bytes  array holding the UTF-8 encoded word.
+     * @param offset position of the first byte of the word.
+     * @param length number of bytes of the word.
+     * @return true if the key of the slot is equal to the word.
+     */
+    private boolean keyEquals(int slot, byte[] bytes, int offset, int length) {
+        if (keyLengths[slot] != length)
+            return false;
+        int start = keyOffsets[slot];
+        return Arrays.equals(arena, start, start + length, bytes, offset, offset + length);
+    }
+
+    /**
+     * Moves all entries into a new table of the given capacity. The keys of the
+     * entries are copied into a new arena so that bytes of removed keys are
+     * released.
+     *
+     * @param capacity the new capacity, a power of two.
+     */
+    private void resize(int capacity) {
+        Word[] oldWords = words;
+        int[] oldHashes = hashes;
+        int[] oldOffsets = keyOffsets;
+        int[] oldLengths = keyLengths;
+        byte[] oldArena = arena;
+
+        words = new Word[capacity];
+        hashes = new int[capacity];
+        keyOffsets = new int[capacity];
+        keyLengths = new int[capacity];
+        arena = new byte[Math.max(arenaLength * 2, 16)];
+        arenaLength = 0;
+        int mask = capacity - 1;
+
+        for (int j = 0; j < oldWords.length; j++) {
+            if (oldWords[j] == null)
+                continue;
+            int i = oldHashes[j] & mask;
+            while (words[i] != null) {
+                i = (i + 1) & mask;
+            }
+            words[i] = oldWords[j];
+            hashes[i] = oldHashes[j];
+            keyOffsets[i] = arenaLength;
+            keyLengths[i] = oldLengths[j];
+            System.arraycopy(oldArena, oldOffsets[j], arena, arenaLength, oldLengths[j]);
+            arenaLength += oldLengths[j];
+        }
+    }
+
+    /**
+     * Computes the hash code of the given bytes.
+     *
+     * @param bytes  array holding the UTF-8 encoded word.
+     * @param offset position of the first byte of the word.
+     * @param length number of bytes of the word.
+     * @return the hash code.
+     */
+    private static int hash(byte[] bytes, int offset, int length) {
+        int h = 0;
+        for (int i = offset; i < offset + length; i++) {
+            h = 31 * h + bytes[i];
+        }
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Compares the specified object with this index for equality.
+     * Returns true if the given object is also an instance of Index, the two
+     * indexes have the same size, and all corresponding pairs of elements are
+     * equal.
+     *
+     * @param o the object to be compared for equality with this index.
+     * @return true if the specified object is equal to this index.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (o == null)
+            return false;
+
+        if (o == this)
+            return true;
+
+        if (!(o instanceof Index))
+            return false;
+
+        Index obj = (Index) o;
+
+        if (this.size() != obj.size())
+            return false;
+
+        // using two iterators to iterate through two indexes and checks the equality
+        // for each data value
+        Iterator<Word> it1 = this.iterator();
+        Iterator<Word> it2 = obj.iterator();
+
+        while (it1.hasNext() && it2.hasNext()) {
+            Word data1 = it1.next();
+            Word data2 = it2.next();
+
+            if (!data1.equals(data2))
+                return false;
+
+        }
+
+        return !it1.hasNext() && !it2.hasNext();
+
+    }
+
+    /**
+     * Returns a hash code for this index, consistent with equals().
+     *
+     * @return the hash code of this index.
+     */
+    @Override
+    public int hashCode() {
+        return Index.hashCodeOf(this);
+    }
+
+    /**
+     * Returns the string representation of this index.
+     * The string representation consists of a list of the index's elements in
+     * sorted order enclosed in square brackets ("[]").
+     * Adjacent elements are separated by the characters ", " (comma and space).
+     *
+     * @return the string representation of this index.
+     */
+    public String toString() {
+        if (size() == 0) {
+            return "[]";
+        }
+
+        StringBuilder str = new StringBuilder("[");
+        Iterator<Word> it = iterator();
+
+        if (it.hasNext()) {
+            str.append(it.next());
+        }
+
+        while (it.hasNext()) {
+            str.append(", ").append(it.next());
+        }
+
+        return str.append("]").toString();
+    }
+
+    /**
+     * Implements the Iterator interface over a sorted snapshot of the words
+     * and is able to remove the last returned word from the index.
+     */
+    private class SliceIterator implements Iterator<Word> {
+        private final Word[] snapshot;
+        private int next = 0;
+        private Word lastReturned = null;
+        private int expectedModCount = modCount;
+
+        /**
+         * Constructs an iterator over the given sorted array of words.
+         *
+         * @param snapshot the words of the index in sorted order.
+         */
+        SliceIterator(Word[] snapshot) {
+            this.snapshot = snapshot;
+        }
+
+        /**
+         * Checks if there are more elements in the iteration.
+         *
+         * @return true if the iteration has more elements.
+         */
+        @Override
+        public boolean hasNext() {
+            return next < snapshot.length;
+        }
+
+        /**
+         * Returns the next element in the iteration.
+         *
+         * @return the next Word in the iteration.
+         * @throws NoSuchElementException          if the iteration has no more
+         *                                         elements.
+         * @throws ConcurrentModificationException if the index was structurally
+         *                                         modified outside this iterator.
+         */
+        @Override
+        public Word next() throws NoSuchElementException {
+            if (expectedModCount != modCount)
+                throw new ConcurrentModificationException("index modified during iteration");
+            if (!hasNext())
+                throw new NoSuchElementException("the end of the index reached");
+            lastReturned = snapshot[next++];
+            return lastReturned;
+        }
+
+        /**
+         * Removes from the index the last element returned by this iterator.
+         *
+         * @throws IllegalStateException if the next method has not yet been called,
+         *                               or the remove method has already been called
+         *                               after the last call to next.
+         */
+        @Override
+        public void remove() throws IllegalStateException {
+            if (lastReturned == null)
+                throw new IllegalStateException("next() must be called before remove method");
+            if (expectedModCount != modCount)
+                throw new ConcurrentModificationException("index modified during iteration");
+
+            ByteSliceIndex.this.remove(lastReturned.getWord());
+            expectedModCount = modCount;
+            lastReturned = null;
+        }
+    }
+}
@@ -0,0 +1,533 @@
+package project5;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.RandomAccessFile;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Locale;
+import java.util.Objects;
+import java.util.function.Consumer;
+
+/**
+ * ByteTokenizer splits UTF-8 encoded text into words working directly on the
+ * bytes of the input, instead of going through Scanner, toLowerCase() and
+ * stripNonLetters() for every token as FileParser does.
+ * The words produced are exactly the ones FileParser produces for the same
+ * (valid UTF-8) input: tokens are separated by whitespace, lower-cased, and
+ * only alphabetic characters up to the first apostrophe are kept.
+ * Tokens made of ASCII and Latin-1 characters are folded and cleaned in a
+ * single pass over the bytes and turned into a String only once; any other
+ * token falls back to decoding and the FileParser rules.
+ * Words can also be delivered as UTF-8 byte slices of a reused buffer, in
+ * which case no String is created for ASCII and Latin-1 words at all.
+ * Input can be fed in several buffers; a token may span buffer boundaries.
+ * Files compressed with gzip are decompressed in a separate thread by
+ * DecompressingInputStream while they are tokenized.
+ * The input is scanned and cleaned eight bytes at a time where possible: a
+ * long read from the buffer tells how many bytes come before the next
+ * whitespace or control byte, and a run of eight ASCII letters is lower-cased
+ * with a single operation on a long.
+ * A TokenFilter other than TokenFilter.DEFAULT replaces the FileParser rules;
+ * every token is then decoded and passed through the filter.
+ *
+ * @author Olivia Yu
+ * @version October 17, 2026
+ */
+public class ByteTokenizer {
+
+    /** Size of the regions of a file that are mapped into memory at once. */
+    private static final int MAP_REGION = 1 << 26;
+
+    /** Size of the chunks copied from buffers not backed by an array. */
+    private static final int CHUNK = 1 << 14;
+
+    /** The given byte in every byte of a long. */
+    private static final long ONES = 0x0101010101010101L;
+    private static final long HIGH_BITS = 0x80 * ONES;
+
+    /** Reads and writes longs in byte arrays, first byte in the lowest bits. */
+    private static final VarHandle LONG_LE =
+            MethodHandles.byteArrayViewVarHandle(long[].class, ByteOrder.LITTLE_ENDIAN);
+
+    private final Consumer<String> consumer;
+    private final WordSliceConsumer sliceConsumer;
+    private final TokenFilter filter;
+    private final boolean fastFold;
+    private byte[] chunk;
+    private byte[] raw = new byte[64];
+    private byte[] clean = new byte[64];
+    private int rawLength = 0;
+    private boolean cleanAscii = true;
+    private long wordCount = 0;
+
+    /**
+     * Constructs a tokenizer that passes every word to the given consumer.
+     *
+     * @param consumer the action to be performed for each word
+     * @throws IllegalArgumentException if consumer is null
+     */
+    public ByteTokenizer(Consumer<String> consumer) throws IllegalArgumentException {
+        this(consumer, TokenFilter.DEFAULT);
+    }
+
+    /**
+     * Constructs a tokenizer that normalizes every token with the given filter
+     * and passes the resulting words to the consumer.
+     *
+     * @param consumer the action to be performed for each word
+     * @param filter   the normalization applied to every token
+     * @throws IllegalArgumentException if consumer or filter is null
+     */
+    public ByteTokenizer(Consumer<String> consumer, TokenFilter filter)
+            throws IllegalArgumentException {
+        if (consumer == null)
+            throw new IllegalArgumentException("consumer cannot be null");
+        if (filter == null)
+            throw new IllegalArgumentException("filter cannot be null");
+        this.consumer = consumer;
+        this.sliceConsumer = null;
+        this.filter = filter;
+        this.fastFold = filter == TokenFilter.DEFAULT && fastFold();
+    }
+
+    /**
+     * Constructs a tokenizer that passes every word to the given consumer as a
+     * slice of UTF-8 encoded bytes. The slice is only valid during the call.
+     *
+     * @param sliceConsumer the action to be performed for each word
+     * @throws IllegalArgumentException if sliceConsumer is null
+     */
+    public ByteTokenizer(WordSliceConsumer sliceConsumer) throws IllegalArgumentException {
+        this(sliceConsumer, TokenFilter.DEFAULT);
+    }
+
+    /**
+     * Constructs a tokenizer that normalizes every token with the given filter
+     * and passes the resulting words to the consumer as slices of UTF-8
+     * encoded bytes. The slice is only valid during the call.
+     *
+     * @param sliceConsumer the action to be performed for each word
+     * @param filter        the normalization applied to every token
+     * @throws IllegalArgumentException if sliceConsumer or filter is null
+     */
+    public ByteTokenizer(WordSliceConsumer sliceConsumer, TokenFilter filter)
+            throws IllegalArgumentException {
+        if (sliceConsumer == null)
+            throw new IllegalArgumentException("consumer cannot be null");
+        if (filter == null)
+            throw new IllegalArgumentException("filter cannot be null");
+        this.consumer = null;
+        this.sliceConsumer = sliceConsumer;
+        this.filter = filter;
+        this.fastFold = filter == TokenFilter.DEFAULT && fastFold();
+    }
+
+    /**
+     * Checks whether lower-casing of the default locale matches the one done
+     * on bytes.
+     *
+     * @return true if tokens may be lower-cased without decoding them
+     */
+    private static boolean fastFold() {
+        // these locales lower-case some Latin characters differently, so
+        // tokens are always decoded and lower-cased by String in that case
+        String lang = Locale.getDefault().getLanguage();
+        return !(lang.equals("tr") || lang.equals("az") || lang.equals("lt"));
+    }
+
+    /**
+     * Tokenizes the remaining bytes of the buffer. A token at the end of the
+     * buffer is kept until the next call to feed() or finish(). Bytes of a
+     * buffer that is not backed by an array are copied to an array in chunks
+     * first.
+     *
+     * @param buffer bytes of UTF-8 encoded text
+     */
+    public void feed(ByteBuffer buffer) {
+        int position = buffer.position();
+        int limit = buffer.limit();
+        if (buffer.hasArray()) {
+            scan(buffer.array(), buffer.arrayOffset() + position, buffer.arrayOffset() + limit);
+        } else {
+            if (chunk == null)
+                chunk = new byte[CHUNK];
+            for (int p = position; p < limit; p += CHUNK) {
+                int n = Math.min(CHUNK, limit - p);
+                buffer.get(p, chunk, 0, n);
+                scan(chunk, 0, n);
+            }
+        }
+        buffer.position(limit);
+    }
+
+    /**
+     * Tokenizes the given bytes.
+     *
+     * @param bytes  array of UTF-8 encoded text
+     * @param offset position of the first byte
+     * @param length number of bytes
+     * @throws IndexOutOfBoundsException if the bytes are not within the array
+     */
+    public void feed(byte[] bytes, int offset, int length) throws IndexOutOfBoundsException {
+        Objects.checkFromIndexSize(offset, length, bytes.length);
+        scan(bytes, offset, offset + length);
+    }
+
+    /**
+     * Splits the bytes from position from to position to into tokens.
+     *
+     * @param bytes array of UTF-8 encoded text
+     * @param from  position of the first byte
+     * @param to    position after the last byte
+     */
+    private void scan(byte[] bytes, int from, int to) {
+        int i = from;
+        while (i < to) {
+            if (to - i >= Long.BYTES) {
+                long x = (long) LONG_LE.get(bytes, i);
+                // the lowest high bit set marks the first byte below '!', that
+                // is the first byte that may be whitespace; all the bytes
+                // before it belong to the current token
+                long below = (x - 0x21 * ONES) & ~x & HIGH_BITS;
+                int run = below == 0 ? Long.BYTES : Long.numberOfTrailingZeros(below) >>> 3;
+                if (run != 0) {
+                    if (rawLength + Long.BYTES > raw.length)
+                        raw = grow(raw);
+                    // bytes stored past the run are overwritten later
+                    LONG_LE.set(raw, rawLength, x);
+                    rawLength += run;
+                    i += run;
+                    continue;
+                }
+            }
+            byte b = bytes[i++];
+            if (isWhitespace(b)) {
+                if (rawLength != 0)
+                    endToken();
+            } else {
+                if (rawLength == raw.length)
+                    raw = grow(raw);
+                raw[rawLength++] = b;
+            }
+        }
+    }
+
+    /**
+     * Completes the last token, if the input did not end with whitespace.
+     */
+    public void finish() {
+        if (rawLength != 0)
+            endToken();
+    }
+
+    /**
+     * Returns the number of words passed to the consumer so far.
+     *
+     * @return the number of words produced
+     */
+    public long getWordCount() {
+        return wordCount;
+    }
+
+    /**
+     * Cleans the bytes of the current token and passes the word, if any, to
+     * the consumer.
+     */
+    private void endToken() {
+        int length = fastFold ? cleanLatin1() : -1;
+
+        if (length > 0) {
+            wordCount++;
+            if (sliceConsumer != null)
+                sliceConsumer.accept(clean, 0, length);
+            else
+                consumer.accept(new String(clean, 0, length,
+                        cleanAscii ? StandardCharsets.ISO_8859_1 : StandardCharsets.UTF_8));
+        } else if (length < 0) {
+            decodeToken();
+        }
+        rawLength = 0;
+    }
+
+    /**
+     * Lower-cases the current token into the clean buffer as UTF-8, keeping
+     * only the alphabetic characters up to the first apostrophe. Only ASCII
+     * characters and two-byte sequences encoding Latin-1 characters are
+     * handled.
+     *
+     * @return the length of the cleaned word, or -1 if the token contains
+     *         characters outside of Latin-1
+     */
+    private int cleanLatin1() {
+        if (clean.length < rawLength)
+            clean = new byte[raw.length];
+
+        int length = 0;
+        boolean stopped = false;
+        cleanAscii = true;
+        for (int i = 0; i < rawLength; i++) {
+            if (!stopped && rawLength - i >= Long.BYTES) {
+                long x = (long) LONG_LE.get(raw, i);
+                long y = x | 0x20 * ONES;
+                // with no high bit set in x, every byte of y + 0x1F has its high
+                // bit set if it is at least 'a', and every byte of y + 0x05 if
+                // it is greater than 'z'
+                if ((x & HIGH_BITS) == 0
+                        && ((y + 0x1F * ONES) & ~(y + 0x05 * ONES) & HIGH_BITS) == HIGH_BITS) {
+                    LONG_LE.set(clean, length, y);
+                    length += Long.BYTES;
+                    i += Long.BYTES - 1;
+                    continue;
+                }
+            }
+            int c = raw[i];
+            if (c >= 0) {
+                if (stopped)
+                    continue;
+                if (c == '\'') {
+                    stopped = true;
+                } else if ((c | 0x20) >= 'a' && (c | 0x20) <= 'z') {
+                    clean[length++] = (byte) (c | 0x20);
+                }
+            } else {
+                // lead bytes 0xC2 and 0xC3 encode U+0080 to U+00FF
+                c &= 0xFF;
+                if ((c != 0xC2 && c != 0xC3) || i + 1 == rawLength || (raw[i + 1] & 0xC0) != 0x80)
+                    return -1;
+                char ch = (char) (((c & 0x1F) << 6) | (raw[++i] & 0x3F));
+                if (stopped)
+                    continue;
+                ch = Character.toLowerCase(ch);
+                if (Character.isAlphabetic(ch)) {
+                    if (ch < 0x80) {
+                        clean[length++] = (byte) ch;
+                    } else {
+                        clean[length++] = (byte) (0xC0 | (ch >> 6));
+                        clean[length++] = (byte) (0x80 | (ch & 0x3F));
+                        cleanAscii = false;
+                    }
+                }
+            }
+        }
+        return length;
+    }
+
+    /**
+     * Decodes the current token and applies the filter, or the FileParser
+     * rules for the default filter, to it. The decoded token may contain
+     * non-ASCII whitespace, in which case it is made of several Scanner tokens.
+     */
+    private void decodeToken() {
+        String token = new String(raw, 0, rawLength, StandardCharsets.UTF_8);
+        int start = 0;
+        for (int i = 0; i <= token.length(); i++) {
+            if (i == token.length() || Character.isWhitespace(token.charAt(i))) {
+                if (i > start) {
+                    String part = token.substring(start, i);
+                    String word = filter == TokenFilter.DEFAULT
+                            ? FileParser.strip(part.toLowerCase())
+                            : filter.apply(part);
+                    if (word.length() != 0) {
+                        wordCount++;
+                        if (sliceConsumer != null) {
+                            byte[] bytes = word.getBytes(StandardCharsets.UTF_8);
+                            sliceConsumer.accept(bytes, 0, bytes.length);
+                        } else {
+                            consumer.accept(word);
+                        }
+                    }
+                }
+                start = i + 1;
+            }
+        }
+    }
+
+    /**
+     * Checks if the byte is an ASCII character that Scanner treats as a word
+     * separator (Character.isWhitespace).
+     *
+     * @param b the byte to check
+     * @return true if the byte is whitespace
+     */
+    static boolean isWhitespace(byte b) {
+        return b == ' ' || (b >= 0x09 && b <= 0x0D) || (b >= 0x1C && b <= 0x1F);
+    }
+
+    /**
+     * Returns a copy of the array with twice its length.
+     *
+     * @param a the array to grow
+     * @return the larger array
+     */
+    private static byte[] grow(byte[] a) {
+        byte[] larger = new byte[a.length * 2];
+        System.arraycopy(a, 0, larger, 0, a.length);
+        return larger;
+    }
+
+    /**
+     * Passes every word of the given file to the consumer. The file is mapped
+     * into memory region by region rather than read through a Scanner.
+     *
+     * @param fileName name of the UTF-8 encoded input file
+     * @param consumer the action to be performed for each word
+     * @return the number of words read from the file
+     * @throws IOException if the input file cannot be opened for reading
+     */
+    public static long forEachWord(String fileName, Consumer<String> consumer) throws IOException {
+        File f = new File(fileName);
+        // if file does not exist, throw an exception
+        if (!f.exists())
+            throw new IOException(String.format("File: %s  does not exist.", fileName));
+        // if file cannot be read
+        if (!f.canRead())
+            throw new IOException(String.format(
+                    "File: %s  cannot be accessed for reading.", fileName));
+
+        return tokenize(f, new ByteTokenizer(consumer));
+    }
+
+    /**
+     * Passes every word of the given file, normalized with the given filter, to
+     * the consumer. The words are the same as the ones of a FileParser created
+     * with the same filter.
+     *
+     * @param fileName name of the UTF-8 encoded input file
+     * @param filter   the normalization applied to every token
+     * @param consumer the action to be performed for each word
+     * @return the number of words read from the file
+     * @throws IOException if the input file cannot be opened for reading
+     */
+    public static long forEachWord(String fileName, TokenFilter filter, Consumer<String> consumer)
+            throws IOException {
+        File f = new File(fileName);
+        // if file does not exist, throw an exception
+        if (!f.exists())
+            throw new IOException(String.format("File: %s  does not exist.", fileName));
+        // if file cannot be read
+        if (!f.canRead())
+            throw new IOException(String.format(
+                    "File: %s  cannot be accessed for reading.", fileName));
+
+        return tokenize(f, new ByteTokenizer(consumer, filter));
+    }
+
+    /**
+     * Passes every word of the given file to the consumer as a slice of UTF-8
+     * encoded bytes.
+     *
+     * @param fileName      name of the UTF-8 encoded input file
+     * @param sliceConsumer the action to be performed for each word
+     * @return the number of words read from the file
+     * @throws IOException if the input file cannot be opened for reading
+     */
+    public static long forEachSlice(String fileName, WordSliceConsumer sliceConsumer)
+            throws IOException {
+        File f = new File(fileName);
+        // if file does not exist, throw an exception
+        if (!f.exists())
+            throw new IOException(String.format("File: %s  does not exist.", fileName));
+        // if file cannot be read
+        if (!f.canRead())
+            throw new IOException(String.format(
+                    "File: %s  cannot be accessed for reading.", fileName));
+
+        return tokenize(f, new ByteTokenizer(sliceConsumer));
+    }
+
+    /**
+     * Maps the file into memory region by region and feeds it to the tokenizer.
+     * A compressed file is instead read through a DecompressingInputStream.
+     *
+     * @param f         the input file
+     * @param tokenizer the tokenizer to feed
+     * @return the number of words read from the file
+     * @throws IOException if the file cannot be read
+     */
+    private static long tokenize(File f, ByteTokenizer tokenizer) throws IOException {
+        if (DecompressingInputStream.isCompressed(f)) {
+            try (InputStream in = DecompressingInputStream.open(f)) {
+                byte[] chunk = new byte[CHUNK];
+                int n;
+                while ((n = in.read(chunk)) >= 0)
+                    tokenizer.feed(chunk, 0, n);
+            }
+            tokenizer.finish();
+            return tokenizer.getWordCount();
+        }
+        try (RandomAccessFile file = new RandomAccessFile(f, "r");
+                FileChannel channel = file.getChannel()) {
+            return tokenize(channel, 0, channel.size(), tokenizer);
+        }
+    }
+
+    /**
+     * Maps the bytes of the channel from position from to position to into
+     * memory region by region and feeds them to the tokenizer. Several threads
+     * may tokenize different ranges of the same channel at once.
+     *
+     * @param channel   the input file
+     * @param from      position of the first byte
+     * @param to        position after the last byte
+     * @param tokenizer the tokenizer to feed
+     * @return the number of words read from the range
+     * @throws IOException if the file cannot be read
+     */
+    static long tokenize(FileChannel channel, long from, long to, ByteTokenizer tokenizer)
+            throws IOException {
+        for (long position = from; position < to; position += MAP_REGION) {
+            MappedByteBuffer region = channel.map(FileChannel.MapMode.READ_ONLY, position,
+                    Math.min(MAP_REGION, to - position));
+            tokenizer.feed(region);
+        }
+        tokenizer.finish();
+        return tokenizer.getWordCount();
+    }
+
+    /**
+     * Retrieves list of all words from the given file.
+     *
+     * @param fileName name of the UTF-8 encoded input file
+     * @return an array list containing all words of the file, the same as the
+     *         one returned by FileParser.getAllWords()
+     * @throws IOException if the input file cannot be opened for reading
+     */
+    public static ArrayList<String> getAllWords(String fileName) throws IOException {
+        ArrayList<String> listOfWords = new ArrayList<String>(5000);
+        forEachWord(fileName, listOfWords::add);
+        return listOfWords;
+    }
+
+    /**
+     * Adds every word of the given file directly to the index.
+     *
+     * @param fileName name of the UTF-8 encoded input file
+     * @param index    the index to which the words are added
+     * @return the number of words read from the file
+     * @throws IOException if the input file cannot be opened for reading
+     */
+    public static long addAllWords(String fileName, Index index) throws IOException {
+        return forEachWord(fileName, index::add);
+    }
+
+    /**
+     * Adds every word of the given file directly to the index as a byte slice,
+     * so that a String is created only for words not yet in the index.
+     *
+     * @param fileName name of the UTF-8 encoded input file
+     * @param index    the index to which the words are added
+     * @return the number of words read from the file
+     * @throws IOException if the input file cannot be opened for reading
+     */
+    public static long addAllWords(String fileName, ByteSliceIndex index) throws IOException {
+        return forEachSlice(fileName, index::add);
+    }
+}
@@ -0,0 +1,831 @@
+package project5;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.IntPredicate;
+
+/**
+ * Represents a self-balancing (AVL) binary search tree that stores its words
+ * in a struct-of-arrays layout instead of Node, Word and String objects.
+ * Node i of the tree is described by the i-th element of parallel arrays:
+ * the indexes of its children (-1 for none), its height, its count, and the
+ * position and length of its word in a single shared byte arena. Words whose
+ * characters all fit in one byte are stored with one byte per character,
+ * other words with two bytes per character, so the order of the words is
+ * exactly the order of String.compareTo().
+ * A distinct word costs about 21 bytes plus its characters, instead of the
+ * roughly 100 bytes taken by the objects of BSTIndex or AVLIndex.
+ * Nodes always occupy the indexes 0 to size - 1: a removed node is replaced
+ * by the last one, and the arena is compacted when more than half of it is
+ * taken by removed words.
+ * The iterator creates Word objects on demand; they are views of the counts
+ * at that time, and changing them does not change the index.
+ *
+ * @author Olivia Yu
+ * @version October 17, 2026
+ */
+public class CompactIndex implements Index {
+
+    private static final int NIL = -1;
+
+    /** Set in lengths[] for words stored with two bytes per character. */
+    private static final int WIDE = 0x80000000;
+
+    private int[] left;
+    private int[] right;
+    private byte[] heights;
+    private int[] counts;
+    private int[] offsets;
+    private int[] lengths;
+    private byte[] arena;
+    private int arenaLength = 0;
+    private int garbage = 0;
+    private int root = NIL;
+    private int size = 0;
+    private int modCount = 0;
+
+    /**
+     * Constructs a new empty CompactIndex.
+     */
+    public CompactIndex() {
+        this(16);
+    }
+
+    /**
+     * Constructs a new empty CompactIndex with room for the given number of
+     * unique words.
+     *
+     * @param expectedSize the expected number of unique words.
+     * @throws IllegalArgumentException if expectedSize is negative.
+     */
+    public CompactIndex(int expectedSize) throws IllegalArgumentException {
+        if (expectedSize < 0)
+            throw new IllegalArgumentException("expected size cannot be negative");
+        int capacity = Math.max(16, expectedSize);
+        left = new int[capacity];
+        right = new int[capacity];
+        heights = new byte[capacity];
+        counts = new int[capacity];
+        offsets = new int[capacity];
+        lengths = new int[capacity];
+        arena = new byte[capacity * 8];
+    }
+
+    /**
+     * Provides an iterator for the CompactIndex.
+     * The iterator traverses the tree in sorted order, creating a Word object
+     * for every word returned, and supports the remove function.
+     *
+     * @return an Iterator for the CompactIndex.
+     */
+    @Override
+    public Iterator<Word> iterator() {
+        return new CompactIterator();
+    }
+
+    /**
+     * Adds a word to the CompactIndex. If the word already exists, its count is
+     * incremented.
+     *
+     * @param item the word to be added.
+     * @throws IllegalArgumentException if the provided item is null.
+     */
+    @Override
+    public void add(String item) throws IllegalArgumentException {
+        add(item, 1);
+    }
+
+    /**
+     * Adds count occurrences of a word to the CompactIndex. If the word already
+     * exists, its count is increased by count.
+     *
+     * @param item  the word to be added.
+     * @param count the number of occurrences to be added.
+     * @throws IllegalArgumentException if the provided item is null or the count
+     *                                  is not positive.
+     */
+    @Override
+    public void add(String item, int count) throws IllegalArgumentException {
+        if (item == null) {
+            throw new IllegalArgumentException("Cannot add null element");
+        }
+        if (count <= 0) {
+            throw new IllegalArgumentException("count must be positive");
+        }
+
+        root = addHelper(item, count, root);
+    }
+
+    /**
+     * Recursively adds the specified item below the given node and rebalances
+     * the nodes on the way back up.
+     *
+     * @param item  The word to be added.
+     * @param count The number of occurrences to be added.
+     * @param cur   The current node being inspected.
+     * @return The (possibly new) root of this subtree.
+     */
+    private int addHelper(String item, int count, int cur) {
+        if (cur == NIL) {
+            return newNode(item, count);
+        }
+
+        int compare = compare(item, cur);
+
+        // the child is stored after the recursive call returns, since adding a
+        // node may replace the arrays
+        if (compare > 0) {
+            int child = addHelper(item, count, right[cur]);
+            right[cur] = child;
+        } else if (compare < 0) {
+            int child = addHelper(item, count, left[cur]);
+            left[cur] = child;
+        } else {
+            counts[cur] += count;
+            return cur;
+        }
+
+        return rebalance(cur);
+    }
+
+    /**
+     * Allocates a leaf node for a new word and appends the word to the arena.
+     *
+     * @param item  the word.
+     * @param count its count.
+     * @return the index of the new node.
+     */
+    private int newNode(String item, int count) {
+        if (size == counts.length)
+            growNodes(size + (size >> 1) + 1);
+
+        boolean wide = false;
+        for (int i = 0; i < item.length() && !wide; i++)
+            wide = item.charAt(i) > 0xFF;
+        int bytes = wide ? 2 * item.length() : item.length();
+        if (arenaLength + bytes > arena.length)
+            arena = Arrays.copyOf(arena, Math.max(arena.length + (arena.length >> 1),
+                    arenaLength + bytes));
+
+        int offset = arenaLength;
+        for (int i = 0; i < item.length(); i++) {
+            char c = item.charAt(i);
+            if (wide) {
+                arena[offset + 2 * i] = (byte) (c >>> 8);
+                arena[offset + 2 * i + 1] = (byte) c;
+            } else {
+                arena[offset + i] = (byte) c;
+            }
+        }
+        arenaLength += bytes;
+
+        int n = size++;
+        left[n] = NIL;
+        right[n] = NIL;
+        heights[n] = 1;
+        counts[n] = count;
+        offsets[n] = offset;
+        lengths[n] = wide ? item.length() | WIDE : item.length();
+        modCount++;
+        return n;
+    }
+
+    /**
+     * Resizes the node arrays.
+     *
+     * @param capacity the new number of nodes the arrays can hold.
+     */
+    private void growNodes(int capacity) {
+        left = Arrays.copyOf(left, capacity);
+        right = Arrays.copyOf(right, capacity);
+        heights = Arrays.copyOf(heights, capacity);
+        counts = Arrays.copyOf(counts, capacity);
+        offsets = Arrays.copyOf(offsets, capacity);
+        lengths = Arrays.copyOf(lengths, capacity);
+    }
+
+    /**
+     * Releases the memory reserved for words that have not been added yet.
+     */
+    public void trimToSize() {
+        growNodes(size);
+        compactArena();
+    }
+
+    /**
+     * Removes a word from the CompactIndex.
+     *
+     * @param item the word to be removed.
+     * @throws IllegalArgumentException if the provided item is null.
+     */
+    @Override
+    public void remove(String item) throws IllegalArgumentException {
+        if (item == null)
+            throw new IllegalArgumentException("cannot remove a node whose name is null");
+
+        int before = size;
+        freed = NIL;
+        this.root = removeHelper(item, this.root);
+        if (size == before)
+            return;
+
+        modCount++;
+        garbage += item.length() * (isWide(item) ? 2 : 1);
+        moveLastTo(freed);
+        if (garbage > arenaLength / 2)
+            compactArena();
+    }
+
+    /** The node unlinked by the last call to removeHelper. */
+    private int freed;
+
+    /**
+     * Recursively removes the specified item from the tree and rebalances the
+     * nodes on the way back up. The unlinked node is stored in freed.
+     *
+     * @param item The word to be removed.
+     * @param cur  The current node being inspected.
+     * @return The updated root of this subtree after removal.
+     */
+    private int removeHelper(String item, int cur) {
+        if (cur == NIL) {
+            return NIL;
+        }
+
+        int compare = compare(item, cur);
+
+        if (compare < 0) {
+            left[cur] = removeHelper(item, left[cur]);
+        } else if (compare > 0) {
+            right[cur] = removeHelper(item, right[cur]);
+        } else {
+            if (left[cur] == NIL || right[cur] == NIL) {
+                size--;
+                freed = cur;
+                return left[cur] == NIL ? right[cur] : left[cur];
+            }
+
+            // take over the word of the successor, then unlink the successor
+            int tmp = right[cur];
+            while (left[tmp] != NIL)
+                tmp = left[tmp];
+            counts[cur] = counts[tmp];
+            offsets[cur] = offsets[tmp];
+            lengths[cur] = lengths[tmp];
+            right[cur] = removeSuccessor(right[cur]);
+        }
+
+        return rebalance(cur);
+    }
+
+    /**
+     * Unlinks the smallest node of a subtree and rebalances the nodes on the
+     * way back up. The unlinked node is stored in freed.
+     *
+     * @param cur The root of the subtree.
+     * @return The updated root of this subtree after removal.
+     */
+    private int removeSuccessor(int cur) {
+        if (left[cur] == NIL) {
+            size--;
+            freed = cur;
+            return right[cur];
+        }
+        left[cur] = removeSuccessor(left[cur]);
+        return rebalance(cur);
+    }
+
+    /**
+     * Moves the last node into a slot that was freed, so that the nodes keep
+     * occupying the indexes 0 to size - 1. The parent of the last node is found
+     * by searching for its word.
+     *
+     * @param slot the freed slot.
+     */
+    private void moveLastTo(int slot) {
+        int last = size;
+        if (slot == last)
+            return;
+
+        if (root == last) {
+            root = slot;
+        } else {
+            int cur = root;
+            while (true) {
+                int next = compareNodes(last, cur) < 0 ? left[cur] : right[cur];
+                if (next == last) {
+                    if (left[cur] == last)
+                        left[cur] = slot;
+                    else
+                        right[cur] = slot;
+                    break;
+                }
+                cur = next;
+            }
+        }
+
+        left[slot] = left[last];
+        right[slot] = right[last];
+        heights[slot] = heights[last];
+        counts[slot] = counts[last];
+        offsets[slot] = offsets[last];
+        lengths[slot] = lengths[last];
+    }
+
+    /**
+     * Copies the words of all nodes to a new arena without the words that were
+     * removed.
+     */
+    private void compactArena() {
+        int total = 0;
+        for (int n = 0; n < size; n++)
+            total += byteLength(n);
+
+        byte[] compacted = new byte[total];
+        int position = 0;
+        for (int n = 0; n < size; n++) {
+            int bytes = byteLength(n);
+            System.arraycopy(arena, offsets[n], compacted, position, bytes);
+            offsets[n] = position;
+            position += bytes;
+        }
+        arena = compacted;
+        arenaLength = total;
+        garbage = 0;
+    }
+
+    /**
+     * Removes every word whose count satisfies the given predicate. The words
+     * that remain are collected in order during one traversal, and the arrays
+     * and the arena are rebuilt from them in linear time as a perfectly
+     * balanced tree, which satisfies the AVL property.
+     *
+     * @param onCount predicate applied to the count of each word.
+     * @return the number of words removed.
+     * @throws IllegalArgumentException if onCount is null.
+     */
+    @Override
+    public int removeIf(IntPredicate onCount) throws IllegalArgumentException {
+        if (onCount == null)
+            throw new IllegalArgumentException("predicate cannot be null");
+
+        int[] kept = new int[size];
+        int count = 0;
+        int[] stack = new int[64];
+        int depth = 0;
+        int cur = root;
+        while (cur != NIL || depth > 0) {
+            while (cur != NIL) {
+                stack[depth++] = cur;
+                cur = left[cur];
+            }
+            cur = stack[--depth];
+            if (!onCount.test(counts[cur]))
+                kept[count++] = cur;
+            cur = right[cur];
+        }
+
+        int removed = size - count;
+        if (removed == 0)
+            return 0;
+
+        // node i of the new arrays is the i-th remaining word in sorted order
+        int[] newCounts = new int[Math.max(16, count)];
+        int[] newOffsets = new int[newCounts.length];
+        int[] newLengths = new int[newCounts.length];
+        int total = 0;
+        for (int i = 0; i < count; i++)
+            total += byteLength(kept[i]);
+        byte[] newArena = new byte[Math.max(16, total)];
+        int position = 0;
+        for (int i = 0; i < count; i++) {
+            int n = kept[i];
+            int bytes = byteLength(n);
+            System.arraycopy(arena, offsets[n], newArena, position, bytes);
+            newCounts[i] = counts[n];
+            newOffsets[i] = position;
+            newLengths[i] = lengths[n];
+            position += bytes;
+        }
+
+        counts = newCounts;
+        offsets = newOffsets;
+        lengths = newLengths;
+        left = new int[newCounts.length];
+        right = new int[newCounts.length];
+        heights = new byte[newCounts.length];
+        arena = newArena;
+        arenaLength = total;
+        garbage = 0;
+        size = count;
+        root = buildBalanced(0, count);
+        modCount++;
+        return removed;
+    }
+
+    /**
+     * Links the nodes of a sorted range into a balanced tree.
+     *
+     * @param from first node of the range (inclusive).
+     * @param to   last node of the range (exclusive).
+     * @return the root of the tree, or NIL if the range is empty.
+     */
+    private int buildBalanced(int from, int to) {
+        if (from >= to)
+            return NIL;
+
+        int mid = (from + to) >>> 1;
+        left[mid] = buildBalanced(from, mid);
+        right[mid] = buildBalanced(mid + 1, to);
+        updateHeight(mid);
+        return mid;
+    }
+
+    /**
+     * Retrieves the count of the specified word in the CompactIndex.
+     *
+     * @param item The word whose count is to be returned.
+     * @return The count of the word, or -1 if the word is not in the tree.
+     * @throws IllegalArgumentException if the provided item is null.
+     */
+    @Override
+    public int get(String item) throws IllegalArgumentException {
+        if (item == null)
+            throw new IllegalArgumentException("cannot get a node whose name is null");
+
+        int cur = root;
+        while (cur != NIL) {
+            int compare = compare(item, cur);
+            if (compare < 0)
+                cur = left[cur];
+            else if (compare > 0)
+                cur = right[cur];
+            else
+                return counts[cur];
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the size of the CompactIndex.
+     *
+     * @return the number of unique words in the CompactIndex.
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Compares a word with the word of a node, in the order of
+     * String.compareTo().
+     *
+     * @param item the word.
+     * @param n    the node.
+     * @return a negative number, zero, or a positive number as the word is less
+     *         than, equal to, or greater than the word of the node.
+     */
+    private int compare(String item, int n) {
+        int length = lengths[n] & ~WIDE;
+        int limit = Math.min(item.length(), length);
+        for (int i = 0; i < limit; i++) {
+            int d = item.charAt(i) - charAt(n, i);
+            if (d != 0)
+                return d;
+        }
+        return item.length() - length;
+    }
+
+    /**
+     * Compares the words of two nodes, in the order of String.compareTo().
+     *
+     * @param a the first node.
+     * @param b the second node.
+     * @return a negative number, zero, or a positive number as the word of a is
+     *         less than, equal to, or greater than the word of b.
+     */
+    private int compareNodes(int a, int b) {
+        int lengthA = lengths[a] & ~WIDE;
+        int lengthB = lengths[b] & ~WIDE;
+        int limit = Math.min(lengthA, lengthB);
+        for (int i = 0; i < limit; i++) {
+            int d = charAt(a, i) - charAt(b, i);
+            if (d != 0)
+                return d;
+        }
+        return lengthA - lengthB;
+    }
+
+    /**
+     * Returns a character of the word of a node.
+     *
+     * @param n the node.
+     * @param i the position of the character.
+     * @return the character.
+     */
+    private char charAt(int n, int i) {
+        int offset = offsets[n];
+        if ((lengths[n] & WIDE) == 0)
+            return (char) (arena[offset + i] & 0xFF);
+        return (char) ((arena[offset + 2 * i] & 0xFF) << 8 | (arena[offset + 2 * i + 1] & 0xFF));
+    }
+
+    /**
+     * Returns the word of a node as a String.
+     *
+     * @param n the node.
+     * @return the word.
+     */
+    private String word(int n) {
+        int length = lengths[n] & ~WIDE;
+        char[] chars = new char[length];
+        for (int i = 0; i < length; i++)
+            chars[i] = charAt(n, i);
+        return new String(chars);
+    }
+
+    /**
+     * Returns the number of bytes the word of a node takes in the arena.
+     *
+     * @param n the node.
+     * @return the number of bytes.
+     */
+    private int byteLength(int n) {
+        int length = lengths[n] & ~WIDE;
+        return (lengths[n] & WIDE) == 0 ? length : 2 * length;
+    }
+
+    /**
+     * Checks whether a word needs two bytes per character in the arena.
+     *
+     * @param item the word.
+     * @return true if a character of the word does not fit in one byte.
+     */
+    private static boolean isWide(String item) {
+        for (int i = 0; i < item.length(); i++) {
+            if (item.charAt(i) > 0xFF)
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the height of the given node, where an empty subtree has height 0.
+     *
+     * @param n The node whose height is to be returned.
+     * @return The height of the node.
+     */
+    private int height(int n) {
+        return n == NIL ? 0 : heights[n];
+    }
+
+    /**
+     * Recomputes the height of the given node from its children.
+     *
+     * @param n The node whose height is to be updated.
+     */
+    private void updateHeight(int n) {
+        heights[n] = (byte) (1 + Math.max(height(left[n]), height(right[n])));
+    }
+
+    /**
+     * Restores the AVL property at the given node by performing at most two
+     * rotations.
+     *
+     * @param n The node to be rebalanced.
+     * @return The new root of this subtree.
+     */
+    private int rebalance(int n) {
+        updateHeight(n);
+        int balance = height(left[n]) - height(right[n]);
+
+        if (balance > 1) {
+            if (height(left[left[n]]) < height(right[left[n]])) {
+                left[n] = rotateLeft(left[n]);
+            }
+            return rotateRight(n);
+        }
+
+        if (balance < -1) {
+            if (height(right[right[n]]) < height(left[right[n]])) {
+                right[n] = rotateRight(right[n]);
+            }
+            return rotateLeft(n);
+        }
+
+        return n;
+    }
+
+    /**
+     * Rotates the subtree rooted at the given node to the right.
+     *
+     * @param n The root of the subtree.
+     * @return The new root of the subtree.
+     */
+    private int rotateRight(int n) {
+        int newRoot = left[n];
+        left[n] = right[newRoot];
+        right[newRoot] = n;
+        updateHeight(n);
+        updateHeight(newRoot);
+        return newRoot;
+    }
+
+    /**
+     * Rotates the subtree rooted at the given node to the left.
+     *
+     * @param n The root of the subtree.
+     * @return The new root of the subtree.
+     */
+    private int rotateLeft(int n) {
+        int newRoot = right[n];
+        right[n] = left[newRoot];
+        left[newRoot] = n;
+        updateHeight(n);
+        updateHeight(newRoot);
+        return newRoot;
+    }
+
+    /**
+     * Compares the specified object with this CompactIndex for equality.
+     * Two Index objects are considered equal if they contain the same number of
+     * words, and those words are pairwise equal.
+     *
+     * @param o the object to be compared for equality with this CompactIndex.
+     * @return true if the specified object is equal to this CompactIndex.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (o == null)
+            return false;
+
+        if (o == this)
+            return true;
+
+        if (!(o instanceof Index))
+            return false;
+
+        Index obj = (Index) o;
+
+        if (this.size() != obj.size())
+            return false;
+
+        // using two iterators to iterate through two indexes and checks the equality
+        // for each data value
+        Iterator<Word> it1 = this.iterator();
+        Iterator<Word> it2 = obj.iterator();
+
+        while (it1.hasNext() && it2.hasNext()) {
+            Word data1 = it1.next();
+            Word data2 = it2.next();
+
+            if (!data1.equals(data2))
+                return false;
+
+        }
+
+        return !it1.hasNext() && !it2.hasNext();
+
+    }
+
+    /**
+     * Returns a hash code for this CompactIndex, consistent with equals().
+     *
+     * @return the hash code of this CompactIndex.
+     */
+    @Override
+    public int hashCode() {
+        return Index.hashCodeOf(this);
+    }
+
+    /**
+     * Returns the string representation of this CompactIndex.
+     * The string representation consists of a list of the index's elements in
+     * sorted order enclosed in square brackets ("[]").
+     * Adjacent elements are separated by the characters ", " (comma and space).
+     *
+     * @return the string representation of this CompactIndex.
+     */
+    public String toString() {
+        if (size() == 0) {
+            return "[]";
+        }
+
+        StringBuilder str = new StringBuilder("[");
+        Iterator<Word> it = iterator();
+
+        if (it.hasNext()) {
+            str.append(it.next());
+        }
+
+        while (it.hasNext()) {
+            str.append(", ").append(it.next());
+        }
+
+        return str.append("]").toString();
+    }
+
+    /**
+     * An iterator for the CompactIndex that traverses the tree in sorted order
+     * using a stack of node indexes and creates Word objects on demand.
+     */
+    private class CompactIterator implements Iterator<Word> {
+
+        private int[] stack = new int[64];
+        private int depth = 0;
+        private Word lastReturned = null;
+        private int expectedModCount = modCount;
+
+        /**
+         * Constructs an iterator positioned at the smallest word of the tree.
+         */
+        CompactIterator() {
+            pushLeft(root);
+        }
+
+        /**
+         * Pushes the given node and all of its left descendants onto the stack.
+         *
+         * @param n The starting node.
+         */
+        private void pushLeft(int n) {
+            while (n != NIL) {
+                stack[depth++] = n;
+                n = left[n];
+            }
+        }
+
+        /**
+         * Checks if there are more elements in the iteration.
+         *
+         * @return true if the iteration has more elements.
+         */
+        @Override
+        public boolean hasNext() {
+            return depth > 0;
+        }
+
+        /**
+         * Returns the next element in the iteration.
+         *
+         * @return A new Word object holding the next word and its count.
+         * @throws NoSuchElementException          if the iteration has no more
+         *                                         elements.
+         * @throws ConcurrentModificationException if the tree was structurally
+         *                                         modified outside this iterator.
+         */
+        @Override
+        public Word next() throws NoSuchElementException {
+            if (expectedModCount != modCount) {
+                throw new ConcurrentModificationException("index modified during iteration");
+            }
+            if (!hasNext()) {
+                throw new NoSuchElementException("end of the tree!");
+            }
+
+            int n = stack[--depth];
+            pushLeft(right[n]);
+            lastReturned = new Word(word(n), counts[n]);
+            return lastReturned;
+        }
+
+        /**
+         * Removes the last element returned by this iterator from the
+         * CompactIndex.
+         *
+         * @throws IllegalStateException if the next method has not yet been called,
+         *                               or the remove method has already been called
+         *                               after the last call to next.
+         */
+        @Override
+        public void remove() throws IllegalStateException {
+            if (lastReturned == null) {
+                throw new IllegalStateException("next() must be called before remove method");
+            }
+            if (expectedModCount != modCount) {
+                throw new ConcurrentModificationException("index modified during iteration");
+            }
+
+            String removed = lastReturned.getWord();
+            CompactIndex.this.remove(removed);
+            expectedModCount = modCount;
+            lastReturned = null;
+
+            // rebuild the stack so that it holds the path to the first word
+            // greater than the removed one
+            depth = 0;
+            int cur = root;
+            while (cur != NIL) {
+                if (compare(removed, cur) < 0) {
+                    stack[depth++] = cur;
+                    cur = left[cur];
+                } else {
+                    cur = right[cur];
+                }
+            }
+        }
+
+    }
+}
@@ -0,0 +1,331 @@
+package project5;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.IntPredicate;
+
+/**
+ * Represents a thread-safe index that many threads can add words to at the
+ * same time while other threads read counts.
+ * Words are kept in a ConcurrentHashMap and every word has its own LongAdder
+ * counter, so threads adding the same word do not block each other and
+ * threads adding different words rarely touch the same memory.
+ * Iteration is weakly consistent: the iterator returns the words present
+ * when it was created, in sorted order, with the counts they had at that time,
+ * and never throws ConcurrentModificationException.
+ *
+ * @author Olivia Yu
+ * @version October 17, 2026
+ */
+public class ConcurrentIndex implements Index {
+
+    private final ConcurrentHashMap<String, LongAdder> counts;
+
+    /**
+     * Constructs a new empty ConcurrentIndex.
+     */
+    public ConcurrentIndex() {
+        counts = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * Constructs a new empty ConcurrentIndex sized for the given number of
+     * unique words.
+     *
+     * @param expectedSize the expected number of unique words.
+     * @throws IllegalArgumentException if expectedSize is negative.
+     */
+    public ConcurrentIndex(int expectedSize) throws IllegalArgumentException {
+        if (expectedSize < 0)
+            throw new IllegalArgumentException("expected size cannot be negative");
+        counts = new ConcurrentHashMap<>(expectedSize);
+    }
+
+    /**
+     * Returns a weakly consistent iterator over a sorted snapshot of the words
+     * of this index.
+     *
+     * @return an Iterator for the ConcurrentIndex.
+     */
+    @Override
+    public Iterator<Word> iterator() {
+        List<Word> snapshot = new ArrayList<>(counts.size());
+        for (Map.Entry<String, LongAdder> e : counts.entrySet()) {
+            snapshot.add(new Word(e.getKey(), e.getValue().intValue()));
+        }
+        Collections.sort(snapshot);
+        return new SnapshotIterator(snapshot);
+    }
+
+    /**
+     * Returns the k most frequent words of the index, ordered from the highest
+     * count to the lowest, with ties in alphabetical order. The map is
+     * scanned once with a heap of at most k words, without sorting it.
+     *
+     * @param k number of words to be returned.
+     * @return list of at most k most frequent words.
+     * @throws IllegalArgumentException if k is negative.
+     */
+    @Override
+    public List<Word> topK(int k) throws IllegalArgumentException {
+        return Index.mostFrequent(counts.entrySet().stream()
+                .map(e -> new Word(e.getKey(), e.getValue().intValue()))::iterator, size(), k);
+    }
+
+    /**
+     * Adds a word to the index. If the word already exists, its count is
+     * incremented. This method may be called by several threads at once.
+     *
+     * @param item the word to be added.
+     * @throws IllegalArgumentException if the item is null.
+     */
+    @Override
+    public void add(String item) throws IllegalArgumentException {
+        if (item == null)
+            throw new IllegalArgumentException("can not add null element");
+
+        counter(item).increment();
+    }
+
+    /**
+     * Adds count occurrences of a word to the index. If the word already
+     * exists, its count is increased by count. This method may be called by
+     * several threads at once.
+     *
+     * @param item  the word to be added.
+     * @param count the number of occurrences to be added.
+     * @throws IllegalArgumentException if the item is null or the count is not
+     *                                  positive.
+     */
+    @Override
+    public void add(String item, int count) throws IllegalArgumentException {
+        if (item == null)
+            throw new IllegalArgumentException("can not add null element");
+        if (count <= 0)
+            throw new IllegalArgumentException("count must be positive");
+
+        counter(item).add(count);
+    }
+
+    /**
+     * Returns the counter of the given word, creating it if necessary.
+     *
+     * @param item the word.
+     * @return the counter of the word.
+     */
+    private LongAdder counter(String item) {
+        LongAdder counter = counts.get(item);
+        if (counter == null)
+            counter = counts.computeIfAbsent(item, k -> new LongAdder());
+        return counter;
+    }
+
+    /**
+     * Removes the specified word from the index. Occurrences added by other
+     * threads while the word is being removed may be lost with it.
+     *
+     * @param item the word to be removed.
+     * @throws IllegalArgumentException if the item is null.
+     */
+    @Override
+    public void remove(String item) throws IllegalArgumentException {
+        if (item == null)
+            throw new IllegalArgumentException("can not remove null element");
+
+        counts.remove(item);
+    }
+
+    /**
+     * Removes every word whose current count satisfies the given predicate.
+     *
+     * @param onCount predicate applied to the count of each word.
+     * @return the number of words removed.
+     * @throws IllegalArgumentException if onCount is null.
+     */
+    @Override
+    public int removeIf(IntPredicate onCount) throws IllegalArgumentException {
+        if (onCount == null)
+            throw new IllegalArgumentException("predicate cannot be null");
+
+        int removed = 0;
+        Iterator<LongAdder> it = counts.values().iterator();
+        while (it.hasNext()) {
+            if (onCount.test(it.next().intValue())) {
+                it.remove();
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Retrieves the current count of the specified word.
+     *
+     * @param item the word whose count is to be returned.
+     * @return the count of the word, or -1 if the word is not in the index.
+     * @throws IllegalArgumentException if the item is null.
+     */
+    @Override
+    public int get(String item) throws IllegalArgumentException {
+        if (item == null)
+            throw new IllegalArgumentException("can not get null element");
+
+        LongAdder counter = counts.get(item);
+        return counter == null ? -1 : counter.intValue();
+    }
+
+    /**
+     * Returns the number of unique words in the index.
+     *
+     * @return the size of the index.
+     */
+    @Override
+    public int size() {
+        return counts.size();
+    }
+
+    /**
+     * Compares the specified object with this index for equality.
+     * Returns true if the given object is also an instance of Index, the two
+     * indexes have the same size, and all corresponding pairs of elements are
+     * equal.
+     *
+     * @param o the object to be compared for equality with this index.
+     * @return true if the specified object is equal to this index.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (o == null)
+            return false;
+
+        if (o == this)
+            return true;
+
+        if (!(o instanceof Index))
+            return false;
+
+        Index obj = (Index) o;
+
+        if (this.size() != obj.size())
+            return false;
+
+        // using two iterators to iterate through two indexes and checks the equality
+        // for each data value
+        Iterator<Word> it1 = this.iterator();
+        Iterator<Word> it2 = obj.iterator();
+
+        while (it1.hasNext() && it2.hasNext()) {
+            Word data1 = it1.next();
+            Word data2 = it2.next();
+
+            if (!data1.equals(data2))
+                return false;
+
+        }
+
+        return !it1.hasNext() && !it2.hasNext();
+
+    }
+
+    /**
+     * Returns a hash code for this index, consistent with equals().
+     *
+     * @return the hash code of this index.
+     */
+    @Override
+    public int hashCode() {
+        return Index.hashCodeOf(this);
+    }
+
+    /**
+     * Returns the string representation of this index.
+     * The string representation consists of a list of the index's elements in
+     * sorted order enclosed in square brackets ("[]").
+     * Adjacent elements are separated by the characters ", " (comma and space).
+     *
+     * @return the string representation of this index.
+     */
+    public String toString() {
+        if (size() == 0) {
+            return "[]";
+        }
+
+        StringBuilder str = new StringBuilder("[");
+        Iterator<Word> it = iterator();
+
+        if (it.hasNext()) {
+            str.append(it.next());
+        }
+
+        while (it.hasNext()) {
+            str.append(", ").append(it.next());
+        }
+
+        return str.append("]").toString();
+    }
+
+    /**
+     * Implements the Iterator interface over a sorted snapshot of the words
+     * and is able to remove the last returned word from the index.
+     */
+    private class SnapshotIterator implements Iterator<Word> {
+        private final List<Word> snapshot;
+        private int next = 0;
+        private Word lastReturned = null;
+
+        /**
+         * Constructs an iterator over the given sorted snapshot.
+         *
+         * @param snapshot the words of the index in sorted order.
+         */
+        SnapshotIterator(List<Word> snapshot) {
+            this.snapshot = snapshot;
+        }
+
+        /**
+         * Checks if there are more elements in the iteration.
+         *
+         * @return true if the iteration has more elements.
+         */
+        @Override
+        public boolean hasNext() {
+            return next < snapshot.size();
+        }
+
+        /**
+         * Returns the next element in the iteration.
+         *
+         * @return the next Word in the iteration.
+         * @throws NoSuchElementException if the iteration has no more elements.
+         */
+        @Override
+        public Word next() throws NoSuchElementException {
+            if (!hasNext())
+                throw new NoSuchElementException("the end of the index reached");
+            lastReturned = snapshot.get(next++);
+            return lastReturned;
+        }
+
+        /**
+         * Removes from the index the last element returned by this iterator.
+         *
+         * @throws IllegalStateException if the next method has not yet been called,
+         *                               or the remove method has already been called
+         *                               after the last call to next.
+         */
+        @Override
+        public void remove() throws IllegalStateException {
+            if (lastReturned == null)
+                throw new IllegalStateException("next() must be called before remove method");
+
+            counts.remove(lastReturned.getWord());
+            lastReturned = null;
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package project5;
+
+import java.io.BufferedInputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.util.Objects;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * DecompressingInputStream reads a gzip compressed file, decompressing it in
+ * a thread of its own. The decompressing thread fills a small set of buffers
+ * and hands each full buffer to the reader through a bounded queue; buffers
+ * the reader is done with go back to the decompressing thread through a
+ * second queue. While the reader tokenizes one buffer the next one is being
+ * decompressed, so the time to parse a compressed file stays close to the
+ * time to decompress it, as long as tokenizing is faster than decompressing
+ * and a second core is available.
+ * The format of a file is recognized by its first bytes rather than by its
+ * name. Files compressed with Zstandard are recognized but not supported,
+ * since the Java class library has no decoder for them.
+ *
+ * @author Olivia Yu
+ * @version October 17, 2026
+ */
+public class DecompressingInputStream extends InputStream {
+
+    /** Number of bytes decompressed into one buffer. */
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /** Number of buffers passed between the two threads. */
+    private static final int BUFFERS = 4;
+
+    /** Marks the end of the decompressed data. */
+    private static final ByteBuffer END = ByteBuffer.allocate(0);
+
+    private final InputStream source;
+    private final BlockingQueue<ByteBuffer> full = new ArrayBlockingQueue<>(BUFFERS + 1);
+    private final BlockingQueue<ByteBuffer> free = new ArrayBlockingQueue<>(BUFFERS);
+    private final Thread worker;
+    private volatile IOException failure;
+    private ByteBuffer current;
+
+    /**
+     * Constructs a stream returning the bytes of the given stream, which are
+     * read in a thread of its own. The thread is started immediately.
+     *
+     * @param source the stream to be read, usually a decompressing stream
+     * @throws IllegalArgumentException if source is null
+     */
+    public DecompressingInputStream(InputStream source) throws IllegalArgumentException {
+        if (source == null)
+            throw new IllegalArgumentException("source cannot be null");
+        this.source = source;
+        for (int i = 0; i < BUFFERS; i++)
+            free.add(ByteBuffer.allocate(BUFFER_SIZE));
+        worker = new Thread(this::decompress, "DecompressingInputStream");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Checks if the given file is compressed in a format this class reads.
+     *
+     * @param f the file
+     * @return true if the file is gzip compressed
+     * @throws IOException if the file cannot be read, or is compressed in a
+     *                     format that is not supported
+     */
+    public static boolean isCompressed(File f) throws IOException {
+        byte[] magic = new byte[4];
+        int n;
+        try (InputStream in = new FileInputStream(f)) {
+            n = in.readNBytes(magic, 0, magic.length);
+        }
+        if (n >= 4 && magic[0] == 0x28 && magic[1] == (byte) 0xB5 && magic[2] == 0x2F
+                && magic[3] == (byte) 0xFD)
+            throw new IOException(String.format(
+                    "File: %s  is Zstandard compressed, which is not supported.", f.getPath()));
+        return n >= 2 && magic[0] == 0x1F && magic[1] == (byte) 0x8B;
+    }
+
+    /**
+     * Opens a gzip compressed file and starts decompressing it.
+     *
+     * @param f the gzip compressed file
+     * @return a stream returning the decompressed bytes of the file
+     * @throws IOException if the file cannot be opened or is not in the gzip
+     *                     format
+     */
+    public static DecompressingInputStream open(File f) throws IOException {
+        InputStream file = new BufferedInputStream(new FileInputStream(f), BUFFER_SIZE);
+        try {
+            return new DecompressingInputStream(new GZIPInputStream(file, BUFFER_SIZE));
+        } catch (IOException e) {
+            file.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Runs in the decompressing thread: fills free buffers from the source
+     * and passes them on, always ending with END. Any exception or error stops
+     * reading; it is thrown to the reader, as an IOException, once the buffers
+     * read before it are consumed, and again on every later read.
+     */
+    private void decompress() {
+        try {
+            while (true) {
+                ByteBuffer buffer = free.take();
+                int n = source.readNBytes(buffer.array(), 0, buffer.capacity());
+                buffer.clear().limit(n);
+                if (n > 0)
+                    full.put(buffer);
+                if (n < buffer.capacity())
+                    break;
+            }
+        } catch (InterruptedException e) {
+            // the stream was closed
+        } catch (IOException e) {
+            failure = e;
+        } catch (Throwable e) {
+            failure = new IOException("decompression failed", e);
+        } finally {
+            // the queue has room for END in addition to every buffer
+            full.add(END);
+        }
+    }
+
+    /**
+     * Returns the buffer holding the next bytes, waiting for the decompressing
+     * thread if needed.
+     *
+     * @return the buffer, or null at the end of the data
+     * @throws IOException if the source could not be read, or the reading
+     *                     thread was interrupted
+     */
+    private ByteBuffer current() throws IOException {
+        if (current == END) {
+            if (failure != null)
+                throw failure;
+            return null;
+        }
+        if (current != null) {
+            if (current.hasRemaining())
+                return current;
+            free.add(current);
+        }
+        try {
+            current = full.take();
+        } catch (InterruptedException e) {
+            current = null;
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("interrupted while waiting for decompressed data");
+        }
+        return current == END ? current() : current;
+    }
+
+    /**
+     * Reads the next byte of decompressed data.
+     *
+     * @return the next byte, or -1 at the end of the data
+     * @throws IOException if the source could not be read
+     */
+    @Override
+    public int read() throws IOException {
+        ByteBuffer buffer = current();
+        return buffer == null ? -1 : buffer.get() & 0xFF;
+    }
+
+    /**
+     * Reads up to len bytes of decompressed data into an array. At most the
+     * rest of one buffer is returned at once.
+     *
+     * @param b   the array
+     * @param off position of the first byte in the array
+     * @param len maximum number of bytes to read
+     * @return the number of bytes read, or -1 at the end of the data
+     * @throws IOException if the source could not be read
+     */
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        Objects.checkFromIndexSize(off, len, b.length);
+        if (len == 0)
+            return 0;
+        ByteBuffer buffer = current();
+        if (buffer == null)
+            return -1;
+        int n = Math.min(len, buffer.remaining());
+        buffer.get(b, off, n);
+        return n;
+    }
+
+    /**
+     * Returns the number of bytes that can be read without waiting for the
+     * decompressing thread.
+     *
+     * @return the number of bytes left in the current buffer
+     */
+    @Override
+    public int available() {
+        return current == null ? 0 : current.remaining();
+    }
+
+    /**
+     * Stops the decompressing thread and closes the source.
+     *
+     * @throws IOException if the source cannot be closed
+     */
+    @Override
+    public void close() throws IOException {
+        worker.interrupt();
+        boolean interrupted = false;
+        while (worker.isAlive()) {
+            try {
+                worker.join();
+            } catch (InterruptedException e) {
+                interrupted = true;
+            }
+        }
+        if (interrupted)
+            Thread.currentThread().interrupt();
+        current = END;
+        source.close();
+    }
+}
@@ -3,19 +3,24 @@ package project5;
 import java.io.File;
 import java.io.IOException;
 import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
 import java.util.Scanner;
+import java.util.function.Consumer;
 
 /**
  * FileParser class is used for parsing text files and retrieving lists of
- * alphabetic words stored in such file.
+ * alphabetic words stored in such file. The file may be gzip compressed.
+ * The file stays open until the parser is closed.
  *
  * @author Joanna Klukowska
  * @version November 17, 2023
  *
  */
-public class FileParser {
+public class FileParser implements AutoCloseable {
 
     private Scanner input;
+    private final TokenFilter filter;
 
     /**
      * Creates FileParser object given a string containing the name of the input
@@ -25,6 +30,24 @@ public class FileParser {
      * @throws IOException if the input file cannot be opened for reading
      */
     public FileParser(String fileName) throws IOException {
+        this(fileName, TokenFilter.DEFAULT);
+    }
+
+    /**
+     * Creates FileParser object that normalizes the tokens of the input file
+     * with the given chain of filters instead of lower-casing them and calling
+     * stripNonLetters().
+     *
+     * @param fileName name of the input file to be parsed
+     * @param filter   the normalization applied to every token
+     * @throws IOException              if the input file cannot be opened for
+     *                                  reading
+     * @throws IllegalArgumentException if filter is null
+     */
+    public FileParser(String fileName, TokenFilter filter) throws IOException {
+        if (filter == null)
+            throw new IllegalArgumentException("filter cannot be null");
+        this.filter = filter;
         File f = new File(fileName);
         // if file does not exist, throw an exception
         if (!f.exists())
@@ -34,8 +57,11 @@ public class FileParser {
         if (!f.canRead())
             throw new IOException(String.format(
                                       "File: %s  cannot be accessed for reading.", fileName));
-        // connect to the file using Scanner
-        input = new Scanner(f);
+        // connect to the file using Scanner, decompressing it if needed
+        if (DecompressingInputStream.isCompressed(f))
+            input = new Scanner(DecompressingInputStream.open(f));
+        else
+            input = new Scanner(f);
 
     }
 
@@ -50,14 +76,73 @@ public class FileParser {
         // create a new list to store all the words
         ArrayList<String> listOfWords = new ArrayList<String>(5000);
 
+        forEachWord(listOfWords::add);
+
+        return listOfWords;
+    }
+
+    /**
+     * Passes every word from the input file to the given consumer as soon as it
+     * is read, without storing the words in a list. The words are the same, and
+     * come in the same order, as the ones returned by getAllWords().
+     *
+     * @param consumer the action to be performed for each word
+     */
+    public void forEachWord(Consumer<String> consumer) {
         while (input.hasNext()) {
-            String nextWord = input.next();
-            nextWord = stripNonLetters(nextWord.toLowerCase());
+            String nextWord = normalize(input.next());
             if (nextWord.length() != 0)
-                listOfWords.add(nextWord);
+                consumer.accept(nextWord);
         }
+    }
 
-        return listOfWords;
+    /**
+     * Adds every word from the input file directly to the given index. Memory
+     * used while parsing is bounded by the number of distinct words kept in the
+     * index rather than by the total number of words in the file.
+     *
+     * @param index the index to which the words are added
+     * @return the number of words read from the input file
+     */
+    public long addAllWords(Index index) {
+        long[] count = new long[1];
+        forEachWord(word -> {
+            index.add(word);
+            count[0]++;
+        });
+        return count[0];
+    }
+
+    /**
+     * Closes the input file and, for a compressed file, stops the thread that
+     * decompresses it.
+     */
+    @Override
+    public void close() {
+        input.close();
+    }
+
+    /**
+     * Returns an iterator that reads the words of the input file lazily, one
+     * token at a time.
+     *
+     * @return an iterator over the words of the input file
+     */
+    public Iterator<String> wordIterator() {
+        return new WordIterator();
+    }
+
+    /**
+     * Applies the filter of this parser to a token. With the default filter,
+     * the token is lower-cased and passed to stripNonLetters().
+     *
+     * @param token token read from the input file
+     * @return the normalized word, or an empty string if the token is dropped
+     */
+    private String normalize(String token) {
+        if (filter == TokenFilter.DEFAULT)
+            return stripNonLetters(token.toLowerCase());
+        return filter.apply(token);
     }
 
     /**
@@ -68,6 +153,17 @@ public class FileParser {
      * @return "pure" words that contain only alphabetic characters
      */
     public String stripNonLetters(String word) {
+        return strip(word);
+    }
+
+    /**
+     * Applies the rules of stripNonLetters to a token: keeps the alphabetic
+     * characters and stops at the first apostrophe.
+     *
+     * @param word token representing a potential word
+     * @return "pure" words that contain only alphabetic characters
+     */
+    static String strip(String word) {
         StringBuilder cleanWord = new StringBuilder();
         char current;
         for (int i = 0; i < word.length(); i++) {
@@ -80,4 +176,51 @@ public class FileParser {
         return cleanWord.toString();
     }
 
+    /**
+     * Implements the Iterator interface, reading and cleaning the next word
+     * from the input file only when it is requested.
+     */
+    private class WordIterator implements Iterator<String> {
+        private String nextWord = advance();
+
+        /**
+         * Reads tokens until one of them is a non-empty word.
+         *
+         * @return the next word, or null if the input file has no more words
+         */
+        private String advance() {
+            while (input.hasNext()) {
+                String word = normalize(input.next());
+                if (word.length() != 0)
+                    return word;
+            }
+            return null;
+        }
+
+        /**
+         * Checks if there are more words in the input file.
+         *
+         * @return true if the iteration has more words
+         */
+        @Override
+        public boolean hasNext() {
+            return nextWord != null;
+        }
+
+        /**
+         * Returns the next word from the input file.
+         *
+         * @return the next word
+         * @throws NoSuchElementException if the input file has no more words
+         */
+        @Override
+        public String next() throws NoSuchElementException {
+            if (nextWord == null)
+                throw new NoSuchElementException("no more words in the file");
+            String word = nextWord;
+            nextWord = advance();
+            return word;
+        }
+    }
+
 }
\ No newline at end of file
@@ -0,0 +1,347 @@
+package project5;
+
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.IntPredicate;
+
+/**
+ * Represents an immutable index built once from another index, for workloads
+ * that query a finished index many times. The words and counts are kept in
+ * sorted parallel arrays, so iteration is a scan of both arrays.
+ * For get(), the first characters of every word are packed into a long, and
+ * these keys are stored in Eytzinger order: the root of an implicit binary
+ * search tree at position 1 and the children of position k at 2k and 2k + 1.
+ * A search reads keys from one array, whose first levels stay in the cache,
+ * and only compares whole words when two keys are equal. The loop does not
+ * branch on the result of the comparisons; the position of the word is
+ * recovered from the final position after the loop.
+ * The index cannot be modified, so add, remove and Iterator.remove throw
+ * UnsupportedOperationException.
+ *
+ * @author Olivia Yu
+ * @version October 17, 2026
+ */
+public class FrozenIndex implements Index {
+
+    private final String[] words;
+    private final int[] counts;
+
+    /** Packed first characters of the words in Eytzinger order, from 1. */
+    private final long[] keys;
+
+    /** Position in words of the word at each position of keys. */
+    private final int[] rank;
+
+    /** Whether a word has a character that does not fit in one byte. */
+    private final boolean wide;
+
+    /**
+     * Constructs a frozen copy of the given index. The words of the source are
+     * expected in sorted order, as returned by its iterator.
+     *
+     * @param source the index to be copied.
+     * @throws IllegalArgumentException if source is null.
+     */
+    public FrozenIndex(Index source) throws IllegalArgumentException {
+        if (source == null)
+            throw new IllegalArgumentException("can not freeze null index");
+
+        int n = source.size();
+        this.words = new String[n];
+        this.counts = new int[n];
+        int i = 0;
+        boolean anyWide = false;
+        for (Word w : source) {
+            words[i] = w.getWord();
+            counts[i] = w.getCount();
+            for (int j = 0; j < words[i].length() && !anyWide; j++)
+                anyWide = words[i].charAt(j) > 0xFF;
+            i++;
+        }
+        this.wide = anyWide;
+
+        this.keys = new long[n + 1];
+        this.rank = new int[n + 1];
+        fill(0, 1);
+    }
+
+    /**
+     * Assigns the sorted words to the positions of the Eytzinger subtree rooted
+     * at position k, in order.
+     *
+     * @param next the position in words of the next word to be assigned.
+     * @param k    the root of the subtree.
+     * @return the position in words of the next word after the subtree.
+     */
+    private int fill(int next, int k) {
+        if (k < keys.length) {
+            next = fill(next, 2 * k);
+            rank[k] = next;
+            keys[k] = key(words[next]);
+            next = fill(next + 1, 2 * k + 1);
+        }
+        return next;
+    }
+
+    /**
+     * Packs the first characters of a word into a long, so that comparing the
+     * keys of two words as signed longs gives the order of their prefixes:
+     * eight characters of one byte each, or four characters of two bytes each
+     * if a word of the index needs two bytes. A character that does not fit in
+     * one byte makes the rest of the key all ones, which keeps the key not less
+     * than the key of any smaller word.
+     *
+     * @param item the word.
+     * @return the key of the word.
+     */
+    private long key(String item) {
+        int bits = wide ? 16 : 8;
+        int chars = 64 / bits;
+        long key = 0;
+        for (int i = 0; i < chars; i++) {
+            int ch = i < item.length() ? item.charAt(i) : 0;
+            if (ch > 0xFF && !wide)
+                return (key << (64 - bits * i) | -1L >>> (bits * i)) ^ Long.MIN_VALUE;
+            key = key << bits | ch;
+        }
+        return key ^ Long.MIN_VALUE;
+    }
+
+    /**
+     * Returns an iterator over the words in sorted order.
+     *
+     * @return an Iterator for the FrozenIndex.
+     */
+    @Override
+    public Iterator<Word> iterator() {
+        return new FrozenIterator();
+    }
+
+    /**
+     * Returns this index, which is already frozen.
+     *
+     * @return this FrozenIndex.
+     */
+    @Override
+    public FrozenIndex freeze() {
+        return this;
+    }
+
+    /**
+     * Always throws, since a frozen index cannot be modified.
+     *
+     * @param item the word to be added.
+     * @throws UnsupportedOperationException always.
+     */
+    @Override
+    public void add(String item) throws UnsupportedOperationException {
+        throw new UnsupportedOperationException("frozen index is read-only");
+    }
+
+    /**
+     * Always throws, since a frozen index cannot be modified.
+     *
+     * @param item  the word to be added.
+     * @param count the number of occurrences to be added.
+     * @throws UnsupportedOperationException always.
+     */
+    @Override
+    public void add(String item, int count) throws UnsupportedOperationException {
+        throw new UnsupportedOperationException("frozen index is read-only");
+    }
+
+    /**
+     * Always throws, since a frozen index cannot be modified.
+     *
+     * @param other the index whose counts should be added.
+     * @throws UnsupportedOperationException always.
+     */
+    @Override
+    public void merge(Index other) throws UnsupportedOperationException {
+        throw new UnsupportedOperationException("frozen index is read-only");
+    }
+
+    /**
+     * Always throws, since a frozen index cannot be modified.
+     *
+     * @param item the word to be removed.
+     * @throws UnsupportedOperationException always.
+     */
+    @Override
+    public void remove(String item) throws UnsupportedOperationException {
+        throw new UnsupportedOperationException("frozen index is read-only");
+    }
+
+    /**
+     * Always throws, since a frozen index cannot be modified.
+     *
+     * @param onCount predicate applied to the count of each word.
+     * @return never returns normally.
+     * @throws UnsupportedOperationException always.
+     */
+    @Override
+    public int removeIf(IntPredicate onCount) throws UnsupportedOperationException {
+        throw new UnsupportedOperationException("frozen index is read-only");
+    }
+
+    /**
+     * Retrieves the count of the specified word.
+     *
+     * @param item the word whose count is to be returned.
+     * @return the count of the word, or -1 if the word is not in the index.
+     * @throws IllegalArgumentException if the item is null.
+     */
+    @Override
+    public int get(String item) throws IllegalArgumentException {
+        if (item == null)
+            throw new IllegalArgumentException("can not get null element");
+
+        long key = key(item);
+        int n = keys.length;
+        int k = 1;
+        while (k < n) {
+            long cur = keys[k];
+            boolean less = cur < key || (cur == key && words[rank[k]].compareTo(item) < 0);
+            k = 2 * k + (less ? 1 : 0);
+        }
+        // undo the moves to the right after the last move to the left, which
+        // leads to the first word not less than the item
+        k >>>= Integer.numberOfTrailingZeros(~k) + 1;
+
+        if (k == 0 || keys[k] != key || !words[rank[k]].equals(item))
+            return -1;
+        return counts[rank[k]];
+    }
+
+    /**
+     * Returns the number of words in the index.
+     *
+     * @return the number of unique words in the FrozenIndex.
+     */
+    @Override
+    public int size() {
+        return words.length;
+    }
+
+    /**
+     * Compares the specified object with this FrozenIndex for equality.
+     * Two Index objects are considered equal if they contain the same number of
+     * words, and those words are pairwise equal.
+     *
+     * @param o the object to be compared for equality with this FrozenIndex.
+     * @return true if the specified object is equal to this FrozenIndex.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (o == null)
+            return false;
+
+        if (o == this)
+            return true;
+
+        if (!(o instanceof Index))
+            return false;
+
+        Index obj = (Index) o;
+
+        if (this.size() != obj.size())
+            return false;
+
+        // using two iterators to iterate through two indexes and checks the equality
+        // for each data value
+        Iterator<Word> it1 = this.iterator();
+        Iterator<Word> it2 = obj.iterator();
+
+        while (it1.hasNext() && it2.hasNext()) {
+            Word data1 = it1.next();
+            Word data2 = it2.next();
+
+            if (!data1.equals(data2))
+                return false;
+
+        }
+
+        return !it1.hasNext() && !it2.hasNext();
+
+    }
+
+    /**
+     * Returns a hash code for this FrozenIndex, consistent with equals().
+     *
+     * @return the hash code of this FrozenIndex.
+     */
+    @Override
+    public int hashCode() {
+        return Index.hashCodeOf(this);
+    }
+
+    /**
+     * Returns the string representation of this FrozenIndex.
+     * The string representation consists of a list of the index's elements in
+     * sorted order enclosed in square brackets ("[]").
+     * Adjacent elements are separated by the characters ", " (comma and space).
+     *
+     * @return the string representation of this FrozenIndex.
+     */
+    public String toString() {
+        if (size() == 0) {
+            return "[]";
+        }
+
+        StringBuilder str = new StringBuilder("[");
+        Iterator<Word> it = iterator();
+
+        if (it.hasNext()) {
+            str.append(it.next());
+        }
+
+        while (it.hasNext()) {
+            str.append(", ").append(it.next());
+        }
+
+        return str.append("]").toString();
+    }
+
+    /**
+     * Implements the Iterator interface by scanning the sorted arrays and
+     * creating a Word object for every word returned.
+     */
+    private class FrozenIterator implements Iterator<Word> {
+        private int next = 0;
+
+        /**
+         * Checks if there are more elements in the iteration.
+         *
+         * @return true if the iteration has more elements.
+         */
+        @Override
+        public boolean hasNext() {
+            return next < words.length;
+        }
+
+        /**
+         * Returns the next element in the iteration.
+         *
+         * @return the next Word in the iteration.
+         * @throws NoSuchElementException if the iteration has no more elements.
+         */
+        @Override
+        public Word next() throws NoSuchElementException {
+            if (!hasNext())
+                throw new NoSuchElementException("the end of the index reached");
+            Word w = new Word(words[next], counts[next]);
+            next++;
+            return w;
+        }
+
+        /**
+         * Always throws, since a frozen index cannot be modified.
+         *
+         * @throws UnsupportedOperationException always.
+         */
+        @Override
+        public void remove() throws UnsupportedOperationException {
+            throw new UnsupportedOperationException("frozen index is read-only");
+        }
+    }
+}
@@ -0,0 +1,484 @@
+package project5;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.function.IntPredicate;
+
+/**
+ * Represents an index that counts Word objects in an open-addressing hash
+ * table and only sorts them when the sorted order is actually needed.
+ * Adding a word costs expected O(1) time, so building the index is close to
+ * linear in the number of words read. The sorted view is created the first
+ * time iterator() is called and cached until a word is added to or removed
+ * from the index.
+ *
+ * @author Olivia Yu
+ * @version October 17, 2026
+ */
+public class HashIndex implements Index {
+
+    private static final int DEFAULT_CAPACITY = 1024;
+
+    /** Largest expected size, whose table of twice the size still fits an array. */
+    static final int MAX_EXPECTED_SIZE = 1 << 29;
+
+    private Word[] table;
+    private int[] hashes;
+    private int size = 0;
+    private int modCount = 0;
+    private Word[] sorted = null;
+
+    /**
+     * Constructs a new empty HashIndex.
+     */
+    public HashIndex() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs a new empty HashIndex that can hold the given number of unique
+     * words before it has to grow.
+     *
+     * @param expectedSize the expected number of unique words.
+     * @throws IllegalArgumentException if expectedSize is negative or greater
+     *                                  than MAX_EXPECTED_SIZE.
+     */
+    public HashIndex(int expectedSize) throws IllegalArgumentException {
+        if (expectedSize < 0)
+            throw new IllegalArgumentException("expected size cannot be negative");
+        if (expectedSize > MAX_EXPECTED_SIZE)
+            throw new IllegalArgumentException("expected size cannot be greater than "
+                    + MAX_EXPECTED_SIZE);
+
+        int capacity = 16;
+        while (capacity < (long) expectedSize * 2) {
+            capacity <<= 1;
+        }
+        table = new Word[capacity];
+        hashes = new int[capacity];
+    }
+
+    /**
+     * Returns an iterator over the words of this index in their natural order.
+     * The words are sorted on the first call and the sorted view is reused by
+     * later calls until the index changes.
+     *
+     * @return an Iterator for the HashIndex.
+     */
+    @Override
+    public Iterator<Word> iterator() {
+        if (sorted == null) {
+            Word[] words = new Word[size];
+            int i = 0;
+            for (Word w : table) {
+                if (w != null)
+                    words[i++] = w;
+            }
+            Arrays.sort(words);
+            sorted = words;
+        }
+        return new HashIterator(sorted);
+    }
+
+    /**
+     * Returns the k most frequent words of the index, ordered from the highest
+     * count to the lowest, with ties in alphabetical order. The hash table is
+     * scanned once with a heap of at most k words, without sorting it.
+     *
+     * @param k number of words to be returned.
+     * @return list of at most k most frequent words.
+     * @throws IllegalArgumentException if k is negative.
+     */
+    @Override
+    public List<Word> topK(int k) throws IllegalArgumentException {
+        return Index.mostFrequent(Arrays.stream(table).filter(Objects::nonNull)::iterator, size(), k);
+    }
+
+    /**
+     * Adds a word to the HashIndex. If the word already exists, its count is
+     * incremented.
+     *
+     * @param item the word to be added.
+     * @throws IllegalArgumentException if the item is null.
+     */
+    @Override
+    public void add(String item) throws IllegalArgumentException {
+        add(item, 1);
+    }
+
+    /**
+     * Adds the given number of occurrences of a word to the HashIndex. If the
+     * word already exists, its count is increased by that number.
+     *
+     * @param item  the word to be added.
+     * @param count the number of occurrences to be added.
+     * @throws IllegalArgumentException if the item is null or count is not
+     *                                  positive.
+     */
+    public void add(String item, int count) throws IllegalArgumentException {
+        if (item == null)
+            throw new IllegalArgumentException("can not add null element");
+        if (count <= 0)
+            throw new IllegalArgumentException("count must be positive");
+
+        int hash = spread(item.hashCode());
+        int mask = table.length - 1;
+        int i = hash & mask;
+
+        while (table[i] != null) {
+            if (hashes[i] == hash && table[i].getWord().equals(item)) {
+                table[i].addCount(count);
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+
+        table[i] = new Word(item);
+        if (count > 1)
+            table[i].addCount(count - 1);
+        hashes[i] = hash;
+        size++;
+        modCount++;
+        sorted = null;
+
+        if (size * 2 > table.length)
+            resize(table.length * 2);
+    }
+
+    /**
+     * Adds the counts of all words of another index to this one. If the other
+     * index is also a HashIndex, its table is scanned slot by slot, so its
+     * words are never sorted.
+     *
+     * @param other the index whose counts should be added.
+     * @throws IllegalArgumentException if other is null.
+     */
+    @Override
+    public void merge(Index other) throws IllegalArgumentException {
+        if (other == null)
+            throw new IllegalArgumentException("can not merge null index");
+
+        if (!(other instanceof HashIndex)) {
+            Index.super.merge(other);
+            return;
+        }
+
+        for (Word w : ((HashIndex) other).table) {
+            if (w != null)
+                add(w.getWord(), w.getCount());
+        }
+    }
+
+    /**
+     * Removes the specified element from the index. Entries following the
+     * removed one in its probe sequence are shifted back so that no tombstones
+     * are left in the table.
+     *
+     * @param item the word to be removed.
+     * @throws IllegalArgumentException if the item is null.
+     */
+    @Override
+    public void remove(String item) throws IllegalArgumentException {
+        if (item == null)
+            throw new IllegalArgumentException("can not remove null element");
+
+        int i = indexOf(item);
+        if (i < 0)
+            return;
+
+        int mask = table.length - 1;
+        int hole = i;
+        int next = (hole + 1) & mask;
+        while (table[next] != null) {
+            int home = hashes[next] & mask;
+            // move the entry into the hole if the hole lies between its home slot
+            // and its current slot (cyclically)
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                table[hole] = table[next];
+                hashes[hole] = hashes[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        table[hole] = null;
+        hashes[hole] = 0;
+
+        size--;
+        modCount++;
+        sorted = null;
+    }
+
+    /**
+     * Removes every word whose count satisfies the given predicate. The
+     * matching entries are cleared in one scan of the table and the remaining
+     * ones are rehashed once. A cached sorted view stays sorted, so it is
+     * filtered instead of being discarded.
+     *
+     * @param onCount predicate applied to the count of each word.
+     * @return the number of words removed.
+     * @throws IllegalArgumentException if onCount is null.
+     */
+    @Override
+    public int removeIf(IntPredicate onCount) throws IllegalArgumentException {
+        if (onCount == null)
+            throw new IllegalArgumentException("predicate cannot be null");
+
+        int removed = 0;
+        for (int i = 0; i < table.length; i++) {
+            if (table[i] != null && onCount.test(table[i].getCount())) {
+                table[i] = null;
+                removed++;
+            }
+        }
+        if (removed == 0)
+            return 0;
+
+        resize(table.length);
+        size -= removed;
+        modCount++;
+
+        if (sorted != null) {
+            Word[] kept = new Word[size];
+            int count = 0;
+            for (Word w : sorted) {
+                if (!onCount.test(w.getCount()))
+                    kept[count++] = w;
+            }
+            sorted = kept;
+        }
+        return removed;
+    }
+
+    /**
+     * Retrieves the count of the specified word in the index.
+     *
+     * @param item the word whose count is to be returned.
+     * @return the count of the word, or -1 if the word is not in the index.
+     * @throws IllegalArgumentException if the item is null.
+     */
+    @Override
+    public int get(String item) throws IllegalArgumentException {
+        if (item == null)
+            throw new IllegalArgumentException("can not get null element");
+
+        int i = indexOf(item);
+        return i < 0 ? -1 : table[i].getCount();
+    }
+
+    /**
+     * Returns the number of unique words in the index.
+     *
+     * @return the size of the index.
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Finds the slot of the table holding the given word.
+     *
+     * @param item the word to look for.
+     * @return the slot of the word, or -1 if the word is not in the table.
+     */
+    private int indexOf(String item) {
+        int hash = spread(item.hashCode());
+        int mask = table.length - 1;
+        int i = hash & mask;
+
+        while (table[i] != null) {
+            if (hashes[i] == hash && table[i].getWord().equals(item))
+                return i;
+            i = (i + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * Moves all entries into a new table of the given capacity.
+     *
+     * @param capacity the new capacity, a power of two.
+     */
+    private void resize(int capacity) {
+        Word[] oldTable = table;
+        int[] oldHashes = hashes;
+        table = new Word[capacity];
+        hashes = new int[capacity];
+        int mask = capacity - 1;
+
+        for (int j = 0; j < oldTable.length; j++) {
+            if (oldTable[j] == null)
+                continue;
+            int i = oldHashes[j] & mask;
+            while (table[i] != null) {
+                i = (i + 1) & mask;
+            }
+            table[i] = oldTable[j];
+            hashes[i] = oldHashes[j];
+        }
+    }
+
+    /**
+     * Mixes the high bits of a hash code into the low bits, since only the low
+     * bits are used to pick a slot.
+     *
+     * @param h the original hash code.
+     * @return the spread hash code.
+     */
+    private static int spread(int h) {
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * Compares the specified object with this index for equality.
+     * Returns true if the given object is also an instance of Index, the two
+     * indexes have the same size, and all corresponding pairs of elements are
+     * equal.
+     *
+     * @param o the object to be compared for equality with this index.
+     * @return true if the specified object is equal to this index.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (o == null)
+            return false;
+
+        if (o == this)
+            return true;
+
+        if (!(o instanceof Index))
+            return false;
+
+        Index obj = (Index) o;
+
+        if (this.size() != obj.size())
+            return false;
+
+        // using two iterators to iterate through two indexes and checks the equality
+        // for each data value
+        Iterator<Word> it1 = this.iterator();
+        Iterator<Word> it2 = obj.iterator();
+
+        while (it1.hasNext() && it2.hasNext()) {
+            Word data1 = it1.next();
+            Word data2 = it2.next();
+
+            if (!data1.equals(data2))
+                return false;
+
+        }
+
+        return !it1.hasNext() && !it2.hasNext();
+
+    }
+
+    /**
+     * Returns a hash code for this index, consistent with equals().
+     *
+     * @return the hash code of this index.
+     */
+    @Override
+    public int hashCode() {
+        return Index.hashCodeOf(this);
+    }
+
+    /**
+     * Returns the string representation of this index.
+     * The string representation consists of a list of the index's elements in
+     * sorted order enclosed in square brackets ("[]").
+     * Adjacent elements are separated by the characters ", " (comma and space).
+     *
+     * @return the string representation of this index.
+     */
+    public String toString() {
+        if (size() == 0) {
+            return "[]";
+        }
+
+        StringBuilder str = new StringBuilder("[");
+        Iterator<Word> it = iterator();
+
+        if (it.hasNext()) {
+            str.append(it.next());
+        }
+
+        while (it.hasNext()) {
+            str.append(", ").append(it.next());
+        }
+
+        return str.append("]").toString();
+    }
+
+    /**
+     * Implements the Iterator interface over a sorted snapshot of the words
+     * and is able to remove the last returned word from the index.
+     */
+    private class HashIterator implements Iterator<Word> {
+        private final Word[] words;
+        private int next = 0;
+        private Word lastReturned = null;
+        private int expectedModCount = modCount;
+
+        /**
+         * Constructs an iterator over the given sorted array of words.
+         *
+         * @param words the words of the index in sorted order.
+         */
+        HashIterator(Word[] words) {
+            this.words = words;
+        }
+
+        /**
+         * Checks if there are more elements in the iteration.
+         *
+         * @return true if the iteration has more elements.
+         */
+        @Override
+        public boolean hasNext() {
+            return next < words.length;
+        }
+
+        /**
+         * Returns the next element in the iteration.
+         *
+         * @return the next Word in the iteration.
+         * @throws NoSuchElementException          if the iteration has no more
+         *                                         elements.
+         * @throws ConcurrentModificationException if the index was structurally
+         *                                         modified outside this iterator.
+         */
+        @Override
+        public Word next() throws NoSuchElementException {
+            if (expectedModCount != modCount)
+                throw new ConcurrentModificationException("index modified during iteration");
+            if (!hasNext())
+                throw new NoSuchElementException("the end of the index reached");
+            lastReturned = words[next++];
+            return lastReturned;
+        }
+
+        /**
+         * Removes from the index the last element returned by this iterator.
+         *
+         * @throws IllegalStateException if the next method has not yet been called,
+         *                               or the remove method has already been called
+         *                               after the last call to next.
+         */
+        @Override
+        public void remove() throws IllegalStateException {
+            if (lastReturned == null)
+                throw new IllegalStateException("next() must be called before remove method");
+            if (expectedModCount != modCount)
+                throw new ConcurrentModificationException("index modified during iteration");
+
+            HashIndex.this.remove(lastReturned.getWord());
+            expectedModCount = modCount;
+            lastReturned = null;
+        }
+    }
+}
@@ -1,5 +1,12 @@
 package project5;
 
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.function.IntPredicate;
+
 /**
  * An interface for container classes used for storing Word objects
  * in sorted order.
@@ -19,6 +26,55 @@ public interface Index extends Iterable<Word> {
      */
     void add(String item);
 
+    /**
+     * Adds count occurrences of an item to the index. If the Word object with
+     * the same string as item already exists, its count should be increased by
+     * count and no new Word objects should be created. The default
+     * implementation calls add(item) count times; implementations should
+     * override it to add the count directly.
+     *
+     * @param item  new item to be added
+     * @param count number of occurrences to be added
+     * @throws IllegalArgumentException when item is null or count is not
+     *                                  positive
+     */
+    default void add(String item, int count) {
+        if (item == null)
+            throw new IllegalArgumentException("can not add null element");
+        if (count <= 0)
+            throw new IllegalArgumentException("count must be positive");
+
+        for (int i = 0; i < count; i++)
+            add(item);
+    }
+
+    /**
+     * Adds the counts of all Word objects of another index to this index, as
+     * if every occurrence counted by the other index had been added here. The
+     * other index is not modified. The default implementation calls
+     * add(word, count) once per distinct word; ordered implementations may
+     * override it with a single sorted merge of both indexes.
+     *
+     * @param other the index whose counts should be added
+     * @throws IllegalArgumentException when other is null
+     */
+    default void merge(Index other) {
+        if (other == null)
+            throw new IllegalArgumentException("can not merge null index");
+
+        // merging an index into itself must not modify it while iterating
+        Iterable<Word> words = other;
+        if (other == this) {
+            List<Word> copy = new ArrayList<>(size());
+            for (Word w : other)
+                copy.add(new Word(w.getWord(), w.getCount()));
+            words = copy;
+        }
+
+        for (Word w : words)
+            add(w.getWord(), w.getCount());
+    }
+
     /**
      * Removes an item from the index if it exists, otherwise the index remains
      * unchanged. This operation should remove the Word object matching the
@@ -37,6 +93,27 @@ public interface Index extends Iterable<Word> {
      */
     int get(String item);
 
+    /**
+     * Returns the counts of many items at once, as if get had been called for
+     * each of them. The default implementation calls get once per item;
+     * implementations may override it to share work between the lookups.
+     *
+     * @param items items whose counts should be returned
+     * @return array whose i-th element is the count associated with items[i],
+     *         or -1 if that item does not exist
+     * @throws IllegalArgumentException when items or any of its elements is
+     *                                  null
+     */
+    default int[] getAll(String[] items) {
+        if (items == null)
+            throw new IllegalArgumentException("can not get null element");
+
+        int[] counts = new int[items.length];
+        for (int i = 0; i < items.length; i++)
+            counts[i] = get(items[i]);
+        return counts;
+    }
+
     /**
      * Returns number of unique words stored in the index.
      * NOTE: this counts each word only once even it the count associated
@@ -46,4 +123,119 @@ public interface Index extends Iterable<Word> {
      */
     int size();
 
+    /**
+     * Removes every Word object whose count satisfies the given predicate.
+     * The default implementation removes the words one at a time through the
+     * iterator; implementations should override it to remove all of them in
+     * a single linear pass.
+     *
+     * @param onCount predicate applied to the count of each word
+     * @return number of words removed from the index
+     * @throws IllegalArgumentException when onCount is null
+     */
+    default int removeIf(IntPredicate onCount) {
+        if (onCount == null)
+            throw new IllegalArgumentException("predicate cannot be null");
+
+        int removed = 0;
+        Iterator<Word> it = iterator();
+        while (it.hasNext()) {
+            if (onCount.test(it.next().getCount())) {
+                it.remove();
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Removes every Word object whose count is smaller than the cutoff.
+     *
+     * @param cutoff minimum count of the words that remain in the index
+     * @return number of words removed from the index
+     */
+    default int pruneBelow(int cutoff) {
+        return removeIf(count -> count < cutoff);
+    }
+
+    /**
+     * Returns an immutable copy of the index for read-only workloads, with the
+     * words in sorted arrays and a cache-friendly search layout. Later changes
+     * to this index are not reflected in the copy.
+     *
+     * @return a FrozenIndex holding the same words and counts
+     */
+    default FrozenIndex freeze() {
+        return new FrozenIndex(this);
+    }
+
+    /**
+     * Returns the k most frequent Word objects of the index, ordered from the
+     * highest count to the lowest. Words with equal counts are ordered
+     * alphabetically. The index is not modified: a heap holding at most k
+     * words is maintained during a single pass over the iterator, which takes
+     * O(n log k) time. Backends whose iterator sorts the words override this
+     * method to scan their storage directly.
+     *
+     * @param k number of words to be returned
+     * @return list of at most k most frequent words
+     * @throws IllegalArgumentException when k is negative
+     */
+    default List<Word> topK(int k) {
+        return mostFrequent(this, size(), k);
+    }
+
+    /**
+     * Selects the k most frequent of the given words, ordered from the highest
+     * count to the lowest, with ties in alphabetical order. The words are
+     * scanned once with a heap of at most k words, and the words returned are
+     * copies, so later changes to the counts do not affect them.
+     *
+     * @param words the words, in any order
+     * @param size  the number of words, used to size the heap
+     * @param k     number of words to be returned
+     * @return list of at most k most frequent words
+     * @throws IllegalArgumentException when k is negative
+     */
+    static List<Word> mostFrequent(Iterable<Word> words, int size, int k) {
+        if (k < 0)
+            throw new IllegalArgumentException("k cannot be negative");
+
+        // the root of the heap is the least frequent of the words kept so far
+        Comparator<Word> byFrequency = Comparator.comparingInt(Word::getCount)
+                .thenComparing(Comparator.reverseOrder());
+        PriorityQueue<Word> heap = new PriorityQueue<>(Math.min(k, size) + 1, byFrequency);
+
+        if (k > 0) {
+            for (Word w : words) {
+                if (heap.size() < k) {
+                    heap.offer(w);
+                } else if (byFrequency.compare(w, heap.peek()) > 0) {
+                    heap.poll();
+                    heap.offer(w);
+                }
+            }
+        }
+
+        List<Word> top = new ArrayList<>(heap.size());
+        for (Word w : heap)
+            top.add(new Word(w.getWord(), w.getCount()));
+        top.sort(byFrequency.reversed());
+        return top;
+    }
+
+    /**
+     * Computes the hash code of an index from its words and their counts in
+     * sorted order, so that indexes equal by equals() have equal hash codes
+     * whatever their backend. Every backend's hashCode() returns this value.
+     *
+     * @param index the index
+     * @return the hash code of the index
+     */
+    static int hashCodeOf(Index index) {
+        int hash = 1;
+        for (Word w : index)
+            hash = 31 * hash + 31 * w.getWord().hashCode() + w.getCount();
+        return hash;
+    }
 }
@@ -0,0 +1,846 @@
+package project5;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.PrintWriter;
+import java.lang.management.ManagementFactory;
+import java.lang.ref.Reference;
+import java.lang.management.ThreadMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * IndexBenchmark measures every Index backend and the file parsers on
+ * generated workloads and writes the results as JSON, so that runs can be
+ * compared over time to catch regressions.
+ * Each measurement is repeated for a number of warm-up iterations, whose
+ * results are discarded, followed by measured iterations; the mean and the
+ * best time per operation are reported together with the bytes allocated
+ * per operation, on standard error while the benchmarks run and as JSON at
+ * the end. The footprint benchmark instead reports the heap retained by
+ * a built index per distinct word, and the contention benchmark reports how
+ * adding to a thread-safe index scales with 1, 2, 4, ... threads.
+ *
+ * Usage: java IndexBenchmark [--backends b1,b2] [--benchmarks add,get,...]
+ * [--sizes 1000,10000] [--distributions zipf,sorted,random]
+ * [--tokens-per-word n] [--corpus-words n] [--warmup n] [--iterations n]
+ * [--threads maxThreads] [--vocabulary textFile] [--json file]
+ *
+ * @author Olivia Yu
+ * @version October 17, 2026
+ */
+public class IndexBenchmark {
+
+    /** Index backends by name, in the order in which they are measured. */
+    private static final Map<String, Supplier<Index>> BACKENDS = new LinkedHashMap<>();
+
+    static {
+        BACKENDS.put("SortedLinkedList", SortedLinkedList::new);
+        BACKENDS.put("BSTIndex", BSTIndex::new);
+        BACKENDS.put("AVLIndex", AVLIndex::new);
+        BACKENDS.put("CompactIndex", CompactIndex::new);
+        BACKENDS.put("OffHeapIndex", OffHeapIndex::new);
+        BACKENDS.put("HashIndex", HashIndex::new);
+        BACKENDS.put("ByteSliceIndex", ByteSliceIndex::new);
+        BACKENDS.put("RadixTrieIndex", RadixTrieIndex::new);
+        BACKENDS.put("ConcurrentIndex", ConcurrentIndex::new);
+        BACKENDS.put("ApproximateIndex", ApproximateIndex::new);
+        BACKENDS.put("WindowedIndex", () -> new WindowedIndex(100_000, 10));
+    }
+
+    private static final List<String> ALL_BENCHMARKS =
+            Arrays.asList("add", "get", "getAll", "frozenGet", "iterate", "prune", "merge",
+                    "remove", "footprint", "contention", "parse", "tokenize");
+
+    /** Backends that may be used by several threads at once. */
+    private static final List<String> THREAD_SAFE = Arrays.asList("ConcurrentIndex");
+
+    /** Backends that cannot remove single words. */
+    private static final List<String> APPEND_ONLY = Arrays.asList("ApproximateIndex");
+
+    private List<String> backends = new ArrayList<>(BACKENDS.keySet());
+    private List<String> benchmarks = new ArrayList<>(ALL_BENCHMARKS);
+    private List<Integer> sizes = Arrays.asList(1000, 10000);
+    private List<String> distributions = Arrays.asList("zipf", "sorted", "random");
+    private int tokensPerWord = 10;
+    private int corpusWords = 1000000;
+    private int warmup = 3;
+    private int iterations = 5;
+    private String jsonFile = null;
+    private String vocabularyFile = null;
+    private int maxThreads = Runtime.getRuntime().availableProcessors();
+
+    private final List<Result> results = new ArrayList<>();
+    private final ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+
+    /**
+     * Runs the benchmarks selected by the command line arguments.
+     *
+     * @param args options described in the class comment
+     * @throws IOException if the corpus or the JSON file cannot be written
+     */
+    public static void main(String[] args) throws IOException {
+        IndexBenchmark bench = new IndexBenchmark();
+        bench.parseArgs(args);
+        bench.run();
+        bench.writeJson();
+    }
+
+    /**
+     * Reads the options from the command line arguments.
+     *
+     * @param args the command line arguments
+     * @throws IllegalArgumentException if an option is unknown or has no value
+     */
+    private void parseArgs(String[] args) throws IllegalArgumentException {
+        for (int i = 0; i < args.length; i += 2) {
+            if (i + 1 == args.length)
+                throw new IllegalArgumentException("missing value for " + args[i]);
+            String value = args[i + 1];
+            switch (args[i]) {
+            case "--backends":
+                backends = Arrays.asList(value.split(","));
+                for (String b : backends) {
+                    if (!BACKENDS.containsKey(b))
+                        throw new IllegalArgumentException("unknown backend " + b);
+                }
+                break;
+            case "--benchmarks":
+                benchmarks = Arrays.asList(value.split(","));
+                break;
+            case "--sizes":
+                sizes = new ArrayList<>();
+                for (String s : value.split(","))
+                    sizes.add(Integer.parseInt(s));
+                break;
+            case "--distributions":
+                distributions = Arrays.asList(value.split(","));
+                break;
+            case "--tokens-per-word":
+                tokensPerWord = Integer.parseInt(value);
+                break;
+            case "--corpus-words":
+                corpusWords = Integer.parseInt(value);
+                break;
+            case "--warmup":
+                warmup = Integer.parseInt(value);
+                break;
+            case "--iterations":
+                iterations = Integer.parseInt(value);
+                break;
+            case "--threads":
+                maxThreads = Integer.parseInt(value);
+                break;
+            case "--vocabulary":
+                vocabularyFile = value;
+                break;
+            case "--json":
+                jsonFile = value;
+                break;
+            default:
+                throw new IllegalArgumentException("unknown option " + args[i]);
+            }
+        }
+    }
+
+    /**
+     * Runs all selected benchmarks.
+     *
+     * @throws IOException if the generated corpus cannot be written
+     */
+    private void run() throws IOException {
+        for (int size : sizes) {
+            for (String distribution : distributions) {
+                String[] words = vocabulary(size);
+                String[] tokens = tokens(words, words.length * tokensPerWord, distribution);
+                for (String backend : backends) {
+                    runIndexBenchmarks(backend, distribution, words.length, tokens);
+                }
+            }
+        }
+        if (benchmarks.contains("parse") || benchmarks.contains("tokenize"))
+            runParserBenchmarks();
+    }
+
+    /**
+     * Runs the selected index benchmarks for one backend and workload.
+     *
+     * @param backend      name of the backend
+     * @param distribution name of the word distribution
+     * @param size         number of distinct words
+     * @param tokens       the token stream
+     */
+    private void runIndexBenchmarks(String backend, String distribution, int size,
+            String[] tokens) {
+        Supplier<Index> factory = BACKENDS.get(backend);
+        Index built = factory.get();
+        for (String t : tokens)
+            built.add(t);
+
+        // words of the index in random order, for removals
+        List<String> shuffled = new ArrayList<>();
+        for (Word w : built)
+            shuffled.add(w.getWord());
+        Collections.shuffle(shuffled, new Random(7));
+        String[] distinct = shuffled.toArray(new String[0]);
+
+        for (String benchmark : benchmarks) {
+            switch (benchmark) {
+            case "add":
+                measure(benchmark, backend, distribution, size, tokens.length, factory, index -> {
+                    for (String t : tokens)
+                        index.add(t);
+                }, IndexBenchmark::release);
+                break;
+            case "get":
+                measure(benchmark, backend, distribution, size, tokens.length, () -> built, index -> {
+                    long sum = 0;
+                    for (String t : tokens)
+                        sum += index.get(t);
+                    blackhole(sum);
+                });
+                break;
+            case "getAll":
+                measure(benchmark, backend, distribution, size, tokens.length, () -> built, index -> {
+                    long sum = 0;
+                    for (int count : index.getAll(tokens))
+                        sum += count;
+                    blackhole(sum);
+                });
+                break;
+            case "frozenGet":
+                // the same lookups against a frozen copy of the index
+                FrozenIndex frozen = built.freeze();
+                measure(benchmark, backend, distribution, size, tokens.length, () -> frozen, index -> {
+                    long sum = 0;
+                    for (String t : tokens)
+                        sum += index.get(t);
+                    blackhole(sum);
+                });
+                break;
+            case "iterate":
+                measure(benchmark, backend, distribution, size, built.size(), () -> built, index -> {
+                    long sum = 0;
+                    for (Word w : index)
+                        sum += w.getCount();
+                    blackhole(sum);
+                });
+                break;
+            case "prune":
+                measure(benchmark, backend, distribution, size, built.size(), () -> build(factory, tokens),
+                        index -> index.pruneBelow(tokensPerWord), IndexBenchmark::release);
+                break;
+            case "merge":
+                // merge an index of the second half of the tokens into one of
+                // the first half
+                String[] firstHalf = Arrays.copyOfRange(tokens, 0, tokens.length / 2);
+                Index secondHalf = build(factory, Arrays.copyOfRange(tokens, tokens.length / 2,
+                        tokens.length));
+                measure(benchmark, backend, distribution, size, secondHalf.size(),
+                        () -> build(factory, firstHalf), index -> index.merge(secondHalf),
+                        IndexBenchmark::release);
+                release(secondHalf);
+                break;
+            case "remove":
+                if (APPEND_ONLY.contains(backend))
+                    break;
+                measure(benchmark, backend, distribution, size, distinct.length, () -> build(factory, tokens),
+                        index -> {
+                            for (String w : distinct)
+                                index.remove(w);
+                        }, IndexBenchmark::release);
+                break;
+            case "footprint":
+                footprint(backend, distribution, size, factory, tokens);
+                break;
+            case "contention":
+                if (THREAD_SAFE.contains(backend))
+                    contention(backend, distribution, size, factory, tokens);
+                break;
+            default:
+                break;
+            }
+        }
+        release(built);
+    }
+
+    /**
+     * Measures the heap retained by an index built from the tokens, per
+     * distinct word.
+     *
+     * @param backend      name of the backend
+     * @param distribution name of the word distribution
+     * @param size         number of distinct words
+     * @param factory      creates the empty index
+     * @param tokens       the token stream
+     */
+    private void footprint(String backend, String distribution, int size, Supplier<Index> factory,
+            String[] tokens) {
+        // per distinct word of the input, since an approximate index does not
+        // keep every word
+        int distinct = new HashSet<>(Arrays.asList(tokens)).size();
+        long before = usedHeap();
+        // every token is copied, so that the strings kept by the index are not
+        // shared with the token stream and are counted as retained
+        Index index = factory.get();
+        for (String t : tokens)
+            index.add(new String(t.toCharArray()));
+        long after = usedHeap();
+        Reference.reachabilityFence(index);
+        release(index);
+
+        double perWord = (double) (after - before) / distinct;
+        Result r = new Result("footprint", backend, distribution, size, distinct, 0, 0, perWord);
+        results.add(r);
+        System.err.printf(Locale.ROOT, "INFO: %-12s %-28s %-7s %8d words: %8.1f B/word retained%n",
+                "footprint", backend, distribution, size, perWord);
+    }
+
+    /**
+     * Measures adding all tokens to one shared index from 1, 2, 4, ... threads,
+     * each thread adding an equal share of the tokens.
+     *
+     * @param backend      name of the backend
+     * @param distribution name of the word distribution
+     * @param size         number of distinct words
+     * @param factory      creates the empty index
+     * @param tokens       the token stream
+     */
+    private void contention(String backend, String distribution, int size, Supplier<Index> factory,
+            String[] tokens) {
+        double single = 0;
+        for (int t = 1; t <= maxThreads; t = t < maxThreads && t * 2 > maxThreads ? maxThreads : t * 2) {
+            int threadCount = t;
+            ExecutorService pool = Executors.newFixedThreadPool(threadCount);
+            double total = 0;
+            double best = Double.MAX_VALUE;
+            try {
+                for (int i = 0; i < warmup + iterations; i++) {
+                    Index index = factory.get();
+                    List<Callable<Void>> tasks = new ArrayList<>();
+                    for (int k = 0; k < threadCount; k++) {
+                        int from = (int) ((long) tokens.length * k / threadCount);
+                        int to = (int) ((long) tokens.length * (k + 1) / threadCount);
+                        tasks.add(() -> {
+                            for (int j = from; j < to; j++)
+                                index.add(tokens[j]);
+                            return null;
+                        });
+                    }
+                    long start = System.nanoTime();
+                    pool.invokeAll(tasks);
+                    long elapsed = System.nanoTime() - start;
+                    release(index);
+                    if (i >= warmup) {
+                        double perOp = (double) elapsed / tokens.length;
+                        total += perOp;
+                        best = Math.min(best, perOp);
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } finally {
+                pool.shutdown();
+            }
+
+            Result r = new Result("contention", backend, distribution, size, tokens.length,
+                    total / iterations, best, 0);
+            r.threads = threadCount;
+            results.add(r);
+            if (threadCount == 1)
+                single = r.meanNs;
+            System.err.printf(Locale.ROOT,
+                    "INFO: %-12s %-28s %-7s %8d words: %2d thread(s) %8.1f ns/op, %7.2f Mops/s, speedup %.2fx%n",
+                    "contention", backend, distribution, size, threadCount, r.meanNs, 1000 / r.meanNs,
+                    single / r.meanNs);
+        }
+    }
+
+    /**
+     * Returns the heap in use after running the garbage collector.
+     *
+     * @return used heap in bytes
+     */
+    private static long usedHeap() {
+        Runtime rt = Runtime.getRuntime();
+        long used = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            System.gc();
+            used = Math.min(used, rt.totalMemory() - rt.freeMemory());
+        }
+        return used;
+    }
+
+    /**
+     * Measures the parsers on a generated corpus file, and the throughput of
+     * ByteTokenizer with each configuration of TokenFilter.
+     *
+     * @throws IOException if the corpus cannot be written
+     */
+    private void runParserBenchmarks() throws IOException {
+        File corpus = File.createTempFile("corpus", ".txt");
+        corpus.deleteOnExit();
+        writeCorpus(corpus, corpusWords);
+        String name = corpus.getPath();
+        int size = 20000;
+
+        if (benchmarks.contains("parse")) {
+            measureParsers(name, size);
+            measureCompressed(corpus, size);
+        }
+        if (benchmarks.contains("tokenize"))
+            measureTokenizer(name, size);
+        corpus.delete();
+    }
+
+    /**
+     * Measures reading all words of the corpus with each parser, and adding
+     * them to an index.
+     *
+     * @param name name of the corpus file
+     * @param size number of distinct words of the corpus
+     */
+    private void measureParsers(String name, int size) {
+        measure("parse", "FileParser", "zipf", size, corpusWords, () -> null, index -> {
+            try (FileParser parser = new FileParser(name)) {
+                blackhole(parser.getAllWords().size());
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        measure("parse", "ByteTokenizer", "zipf", size, corpusWords, () -> null, index -> {
+            try {
+                blackhole(ByteTokenizer.getAllWords(name).size());
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        measure("parse+index", "ByteTokenizer+ByteSliceIndex", "zipf", size, corpusWords, () -> null,
+                index -> {
+                    try {
+                        blackhole(ByteTokenizer.addAllWords(name, new ByteSliceIndex()));
+                    } catch (IOException e) {
+                        throw new IllegalStateException(e);
+                    }
+                });
+    }
+
+    /**
+     * Measures reading a gzip compressed copy of the corpus: decompressing it
+     * alone, and decompressing and tokenizing it at the same time.
+     *
+     * @param corpus the corpus file
+     * @param size   number of distinct words of the corpus
+     * @throws IOException if the compressed copy cannot be written
+     */
+    private void measureCompressed(File corpus, int size) throws IOException {
+        File compressed = File.createTempFile("corpus", ".txt.gz");
+        compressed.deleteOnExit();
+        try (OutputStream out = new GZIPOutputStream(new FileOutputStream(compressed))) {
+            Files.copy(corpus.toPath(), out);
+        }
+        String name = compressed.getPath();
+
+        measure("decompress", "DecompressingInputStream", "zipf", size, corpusWords, () -> null,
+                index -> {
+                    try (InputStream in = DecompressingInputStream.open(compressed)) {
+                        byte[] buffer = new byte[1 << 16];
+                        long total = 0;
+                        int n;
+                        while ((n = in.read(buffer)) >= 0)
+                            total += n;
+                        blackhole(total);
+                    } catch (IOException e) {
+                        throw new IllegalStateException(e);
+                    }
+                });
+        measure("parse", "ByteTokenizer/gzip", "zipf", size, corpusWords, () -> null, index -> {
+            try {
+                blackhole(ByteTokenizer.forEachSlice(name, (bytes, offset, length) -> { }));
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        compressed.delete();
+    }
+
+    /**
+     * Measures tokenizing the corpus with each configuration of TokenFilter.
+     * Words are only counted, so the time is the one of the tokenizer and the
+     * filters.
+     *
+     * @param name name of the corpus file
+     * @param size number of distinct words of the corpus
+     */
+    private void measureTokenizer(String name, int size) {
+        Map<String, TokenFilter> filters = new LinkedHashMap<>();
+        filters.put("default", TokenFilter.DEFAULT);
+        filters.put("lettersAndDigits",
+                TokenFilter.lowerCase().andThen(TokenFilter.lettersAndDigitsToApostrophe()));
+        filters.put("caseFold", TokenFilter.caseFold().andThen(TokenFilter.lettersToApostrophe()));
+        filters.put("stopWords", TokenFilter.DEFAULT.andThen(
+                TokenFilter.stopWords(Arrays.asList("the", "of", "and", "a", "to", "in"))));
+        filters.put("sStemmer", TokenFilter.DEFAULT.andThen(TokenFilter.sStemmer()));
+
+        measure("tokenize", "default/slices", "zipf", size, corpusWords, () -> null, index -> {
+            try {
+                blackhole(ByteTokenizer.forEachSlice(name, (bytes, offset, length) -> { }));
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        for (Map.Entry<String, TokenFilter> e : filters.entrySet()) {
+            measure("tokenize", e.getKey(), "zipf", size, corpusWords, () -> null, index -> {
+                try {
+                    blackhole(ByteTokenizer.forEachWord(name, e.getValue(), word -> { }));
+                } catch (IOException ex) {
+                    throw new IllegalStateException(ex);
+                }
+            });
+        }
+    }
+
+    /**
+     * Runs one measurement: warm-up iterations followed by measured ones. The
+     * setup is executed before every iteration and is not timed.
+     *
+     * @param benchmark    name of the benchmark
+     * @param backend      name of the backend
+     * @param distribution name of the word distribution
+     * @param size         number of distinct words
+     * @param operations   number of operations performed by one iteration
+     * @param setup        creates the index given to the body
+     * @param body         the measured code
+     */
+    private void measure(String benchmark, String backend, String distribution, int size,
+            long operations, Supplier<Index> setup, Body body) {
+        measure(benchmark, backend, distribution, size, operations, setup, body, index -> { });
+    }
+
+    /**
+     * Runs one measurement like the other measure method, passing the index of
+     * every iteration to the teardown once it has been timed.
+     *
+     * @param benchmark    name of the benchmark
+     * @param backend      name of the backend
+     * @param distribution name of the word distribution
+     * @param size         number of distinct words
+     * @param operations   number of operations performed by one iteration
+     * @param setup        creates the index given to the body
+     * @param body         the measured code
+     * @param teardown     releases the index of an iteration
+     */
+    private void measure(String benchmark, String backend, String distribution, int size,
+            long operations, Supplier<Index> setup, Body body, Consumer<Index> teardown) {
+        double total = 0;
+        double best = Double.MAX_VALUE;
+        double bytes = 0;
+        for (int i = 0; i < warmup + iterations; i++) {
+            Index index = setup.get();
+            long allocated = allocatedBytes();
+            long start = System.nanoTime();
+            body.run(index);
+            long elapsed = System.nanoTime() - start;
+            allocated = allocatedBytes() - allocated;
+            teardown.accept(index);
+            if (i >= warmup) {
+                double perOp = (double) elapsed / operations;
+                total += perOp;
+                best = Math.min(best, perOp);
+                bytes += (double) allocated / operations;
+            }
+        }
+
+        Result r = new Result(benchmark, backend, distribution, size, operations,
+                total / iterations, best, bytes / iterations);
+        results.add(r);
+        System.err.printf(Locale.ROOT, "INFO: %-12s %-28s %-7s %8d words: %12.1f ns/op (best %.1f), %8.1f B/op%n",
+                benchmark, backend, distribution, size, r.meanNs, r.bestNs, r.bytesPerOp);
+    }
+
+    /**
+     * Returns the number of bytes allocated so far by the current thread, or 0
+     * if the JVM cannot report it.
+     *
+     * @return allocated bytes
+     */
+    private long allocatedBytes() {
+        if (threads instanceof com.sun.management.ThreadMXBean)
+            return ((com.sun.management.ThreadMXBean) threads).getCurrentThreadAllocatedBytes();
+        return 0;
+    }
+
+    /**
+     * Closes an index that holds resources outside of the heap, such as
+     * OffHeapIndex, instead of leaving them to the garbage collector.
+     *
+     * @param index the index, which is not used afterwards
+     */
+    private static void release(Index index) {
+        if (index instanceof AutoCloseable) {
+            try {
+                ((AutoCloseable) index).close();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    }
+
+    /**
+     * Creates an index containing the given tokens.
+     *
+     * @param factory creates the empty index
+     * @param tokens  the words to add
+     * @return the new index
+     */
+    private static Index build(Supplier<Index> factory, String[] tokens) {
+        Index index = factory.get();
+        for (String t : tokens)
+            index.add(t);
+        return index;
+    }
+
+    /**
+     * Returns the vocabulary of the given size: a random sample of the words of
+     * the vocabulary file if one was selected, or generated words otherwise.
+     *
+     * @param size number of words
+     * @return the vocabulary in sorted order
+     * @throws IOException if the vocabulary file cannot be read
+     */
+    private String[] vocabulary(int size) throws IOException {
+        if (vocabularyFile == null)
+            return generatedVocabulary(size);
+
+        HashIndex distinct = new HashIndex();
+        ByteTokenizer.addAllWords(vocabularyFile, distinct);
+        List<String> words = new ArrayList<>();
+        for (Word w : distinct)
+            words.add(w.getWord());
+        Collections.shuffle(words, new Random(size));
+        words = words.subList(0, Math.min(size, words.size()));
+        Collections.sort(words);
+        return words.toArray(new String[0]);
+    }
+
+    /**
+     * Generates a sorted vocabulary of distinct lower-case words.
+     *
+     * @param size number of words
+     * @return the vocabulary in sorted order
+     */
+    static String[] generatedVocabulary(int size) {
+        Random random = new Random(size);
+        Set<String> seen = new HashSet<>();
+        String[] words = new String[size];
+        int count = 0;
+        while (count < size) {
+            int length = 3 + random.nextInt(8);
+            char[] chars = new char[length];
+            for (int i = 0; i < length; i++)
+                chars[i] = (char) ('a' + random.nextInt(26));
+            String w = new String(chars);
+            if (seen.add(w))
+                words[count++] = w;
+        }
+        Arrays.sort(words);
+        return words;
+    }
+
+    /**
+     * Generates a stream of tokens drawn from the given vocabulary.
+     * With "sorted" the tokens come in alphabetical order, with "random" they
+     * are drawn uniformly, and with "zipf" the i-th most frequent word is
+     * drawn with probability proportional to 1/i.
+     *
+     * @param words        the vocabulary in sorted order
+     * @param count        number of tokens
+     * @param distribution name of the distribution
+     * @return the tokens
+     * @throws IllegalArgumentException if the distribution is unknown
+     */
+    static String[] tokens(String[] words, int count, String distribution)
+            throws IllegalArgumentException {
+        int size = words.length;
+        String[] tokens = new String[count];
+        Random random = new Random(count);
+
+        switch (distribution) {
+        case "sorted":
+            for (int i = 0; i < count; i++)
+                tokens[i] = words[(int) ((long) i * size / count)];
+            break;
+        case "random":
+            for (int i = 0; i < count; i++)
+                tokens[i] = words[random.nextInt(size)];
+            break;
+        case "zipf":
+            // ranks are assigned to words in random order, so that frequent
+            // words are not also alphabetically first
+            List<String> ranked = new ArrayList<>(Arrays.asList(words));
+            Collections.shuffle(ranked, random);
+            double[] cdf = new double[size];
+            double sum = 0;
+            for (int i = 0; i < size; i++) {
+                sum += 1.0 / (i + 1);
+                cdf[i] = sum;
+            }
+            for (int i = 0; i < count; i++) {
+                int rank = Arrays.binarySearch(cdf, random.nextDouble() * sum);
+                rank = rank < 0 ? -rank - 1 : rank;
+                tokens[i] = ranked.get(Math.min(rank, size - 1));
+            }
+            break;
+        default:
+            throw new IllegalArgumentException("unknown distribution " + distribution);
+        }
+        return tokens;
+    }
+
+    /**
+     * Writes a text file of Zipf-distributed words, some of them capitalized
+     * or followed by punctuation, separated by spaces and line breaks.
+     *
+     * @param file  the file to write
+     * @param count number of words
+     * @throws IOException if the file cannot be written
+     */
+    static void writeCorpus(File file, int count) throws IOException {
+        String[] tokens = tokens(generatedVocabulary(20000), count, "zipf");
+        Random random = new Random(1);
+        try (BufferedWriter out = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8)) {
+            for (int i = 0; i < count; i++) {
+                String t = tokens[i];
+                int r = random.nextInt(20);
+                if (r == 0)
+                    t = Character.toUpperCase(t.charAt(0)) + t.substring(1);
+                else if (r == 1)
+                    t = t + ",";
+                else if (r == 2)
+                    t = t + "'s";
+                out.write(t);
+                out.write(i % 12 == 11 ? '\n' : ' ');
+            }
+        }
+    }
+
+    /**
+     * Writes the results as a JSON array to the selected file, or to standard
+     * output if no file was selected.
+     *
+     * @throws IOException if the file cannot be written
+     */
+    private void writeJson() throws IOException {
+        StringBuilder json = new StringBuilder("[\n");
+        for (int i = 0; i < results.size(); i++) {
+            json.append("  ").append(results.get(i).toJson());
+            json.append(i + 1 < results.size() ? ",\n" : "\n");
+        }
+        json.append("]\n");
+
+        if (jsonFile == null) {
+            System.out.print(json);
+        } else {
+            try (PrintWriter out = new PrintWriter(jsonFile, "UTF-8")) {
+                out.print(json);
+            }
+        }
+    }
+
+    /**
+     * Prevents the JIT compiler from removing the computation of a value.
+     *
+     * @param value the value computed by a benchmark
+     */
+    private static void blackhole(long value) {
+        if (value == Long.MIN_VALUE + 1)
+            System.out.print("");
+    }
+
+    /**
+     * The measured code of a benchmark.
+     */
+    @FunctionalInterface
+    private interface Body {
+        /**
+         * Runs the measured code.
+         *
+         * @param index the index prepared by the setup
+         */
+        void run(Index index);
+    }
+
+    /**
+     * The outcome of one measurement.
+     */
+    private static class Result {
+        final String benchmark;
+        final String backend;
+        final String distribution;
+        final int vocabulary;
+        final long operations;
+        final double meanNs;
+        final double bestNs;
+        final double bytesPerOp;
+        int threads = 1;
+
+        /**
+         * Constructs a result.
+         *
+         * @param benchmark    name of the benchmark
+         * @param backend      name of the backend
+         * @param distribution name of the word distribution
+         * @param vocabulary   number of distinct words
+         * @param operations   number of operations per iteration
+         * @param meanNs       mean time per operation in nanoseconds
+         * @param bestNs       best time per operation in nanoseconds
+         * @param bytesPerOp   mean bytes allocated per operation
+         */
+        Result(String benchmark, String backend, String distribution, int vocabulary,
+                long operations, double meanNs, double bestNs, double bytesPerOp) {
+            this.benchmark = benchmark;
+            this.backend = backend;
+            this.distribution = distribution;
+            this.vocabulary = vocabulary;
+            this.operations = operations;
+            this.meanNs = meanNs;
+            this.bestNs = bestNs;
+            this.bytesPerOp = bytesPerOp;
+        }
+
+        /**
+         * Returns this result as a JSON object.
+         *
+         * @return the JSON text
+         */
+        String toJson() {
+            return String.format(Locale.ROOT,
+                    "{\"benchmark\": \"%s\", \"backend\": \"%s\", \"distribution\": \"%s\", "
+                            + "\"vocabulary\": %d, \"operations\": %d, \"meanNsPerOp\": %.3f, "
+                            + "\"bestNsPerOp\": %.3f, \"bytesPerOp\": %.3f, \"threads\": %d}",
+                    benchmark, backend, distribution, vocabulary, operations, meanNs, bestNs,
+                    bytesPerOp, threads);
+        }
+    }
+}
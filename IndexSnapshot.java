@@ -0,0 +1,246 @@
+package project5;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * IndexSnapshot saves the words of an index in a compact binary file and
+ * opens such files again as read-only indexes, without re-reading the input
+ * text or rebuilding any tree.
+ *
+ * The words are stored in sorted order in blocks of BLOCK_SIZE words. Inside
+ * a block every word is front-coded: only the number of leading characters it
+ * shares with the previous word and the UTF-8 bytes of the remaining suffix
+ * are written, followed by the count. All numbers are written as varints
+ * (7 bits per byte). The file layout is:
+ *
+ * <pre>
+ * "FWIX" version
+ * block*            (shared suffixLength suffix count)* per block
+ * blockOffset*      (int) position of every block
+ * wordCount blockSize blockCount (int) indexPosition (long)
+ * </pre>
+ *
+ * @author Olivia Yu
+ * @version October 17, 2026
+ */
+public class IndexSnapshot {
+
+    /** Number of words front-coded against each other in one block. */
+    static final int BLOCK_SIZE = 16;
+
+    static final int MAGIC = 0x46574958; // "FWIX"
+    static final int VERSION = 1;
+    static final int TRAILER_SIZE = 20;
+
+    /**
+     * Prevents instantiation; this class only has static methods.
+     */
+    private IndexSnapshot() {
+    }
+
+    /**
+     * Writes the words, which must be in sorted order, to a snapshot file. Any
+     * Index can be passed, since iterating an index yields its words in sorted
+     * order. The snapshot is written to a temporary file next to the given one,
+     * which is then renamed, so an existing snapshot is only replaced by a
+     * complete one.
+     *
+     * @param words    the words to be saved, in sorted order
+     * @param fileName name of the snapshot file
+     * @return the number of words written
+     * @throws IOException              if the file cannot be written
+     * @throws IllegalArgumentException if the words are not sorted or not
+     *                                  distinct
+     */
+    public static int write(Iterable<Word> words, String fileName)
+            throws IOException, IllegalArgumentException {
+        File target = new File(fileName).getAbsoluteFile();
+        File temp = File.createTempFile(target.getName(), ".tmp", target.getParentFile());
+        try {
+            int wordCount = writeTo(words, temp);
+            Files.move(temp.toPath(), target.toPath(), StandardCopyOption.ATOMIC_MOVE,
+                    StandardCopyOption.REPLACE_EXISTING);
+            return wordCount;
+        } finally {
+            Files.deleteIfExists(temp.toPath());
+        }
+    }
+
+    /**
+     * Writes the words, which must be in sorted order, to the given file.
+     *
+     * @param words the words to be saved, in sorted order
+     * @param file  the file to be written
+     * @return the number of words written
+     * @throws IOException              if the file cannot be written
+     * @throws IllegalArgumentException if the words are not sorted or not
+     *                                  distinct
+     */
+    private static int writeTo(Iterable<Word> words, File file)
+            throws IOException, IllegalArgumentException {
+        List<Integer> blockOffsets = new ArrayList<>();
+        int wordCount = 0;
+        String previous = null;
+
+        try (DataOutputStream out = new DataOutputStream(
+                new BufferedOutputStream(new FileOutputStream(file), 1 << 16))) {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+
+            for (Word w : words) {
+                String word = w.getWord();
+                if (previous != null && previous.compareTo(word) >= 0)
+                    throw new IllegalArgumentException("words must be sorted and distinct: "
+                            + previous + ", " + word);
+
+                int shared = 0;
+                if (wordCount % BLOCK_SIZE == 0) {
+                    blockOffsets.add(out.size());
+                } else {
+                    shared = sharedPrefix(previous, word);
+                }
+
+                byte[] suffix = word.substring(shared).getBytes(StandardCharsets.UTF_8);
+                writeVarint(out, shared);
+                writeVarint(out, suffix.length);
+                out.write(suffix);
+                writeVarint(out, w.getCount());
+
+                previous = word;
+                wordCount++;
+                // DataOutputStream stops counting at Integer.MAX_VALUE
+                if (out.size() == Integer.MAX_VALUE)
+                    throw new IOException("snapshot larger than 2 GB is not supported");
+            }
+
+            int indexPosition = out.size();
+            for (int offset : blockOffsets)
+                out.writeInt(offset);
+            out.writeInt(wordCount);
+            out.writeInt(BLOCK_SIZE);
+            out.writeInt(blockOffsets.size());
+            out.writeLong(indexPosition);
+        }
+        return wordCount;
+    }
+
+    /**
+     * Opens a snapshot file as a read-only index. The file is memory-mapped,
+     * so opening it takes time independent of the number of words.
+     *
+     * @param fileName name of the snapshot file
+     * @return the read-only index
+     * @throws IOException if the file cannot be read or is not a snapshot
+     */
+    public static SnapshotIndex open(String fileName) throws IOException {
+        File f = new File(fileName);
+        // if file does not exist, throw an exception
+        if (!f.exists())
+            throw new IOException(String.format("File: %s  does not exist.", fileName));
+
+        MappedByteBuffer buffer;
+        try (RandomAccessFile file = new RandomAccessFile(f, "r");
+                FileChannel channel = file.getChannel()) {
+            if (channel.size() > Integer.MAX_VALUE)
+                throw new IOException("snapshot larger than 2 GB is not supported");
+            buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+
+        if (buffer.capacity() < 8 + TRAILER_SIZE || buffer.getInt(0) != MAGIC)
+            throw new IOException(String.format("File: %s  is not an index snapshot.", fileName));
+        if (buffer.getInt(4) != VERSION)
+            throw new IOException(String.format("File: %s  has unsupported version %d.",
+                    fileName, buffer.getInt(4)));
+
+        // the trailer must describe a block index that fits the file
+        long trailer = buffer.capacity() - TRAILER_SIZE;
+        long wordCount = buffer.getInt((int) trailer);
+        long blockSize = buffer.getInt((int) trailer + 4);
+        long blockCount = buffer.getInt((int) trailer + 8);
+        long indexPosition = buffer.getLong((int) trailer + 12);
+        if (indexPosition < 8 || indexPosition > trailer || blockSize != BLOCK_SIZE
+                || blockCount < 0 || blockCount * 4 != trailer - indexPosition
+                || wordCount < 0 || wordCount > blockCount * blockSize)
+            throw new IOException(String.format("File: %s  is a damaged index snapshot.", fileName));
+
+        return new SnapshotIndex(buffer);
+    }
+
+    /**
+     * Returns the number of leading characters two words share, without
+     * splitting a surrogate pair.
+     *
+     * @param a the first word
+     * @param b the second word
+     * @return the length of the common prefix
+     */
+    private static int sharedPrefix(String a, String b) {
+        int max = Math.min(a.length(), b.length());
+        int i = 0;
+        while (i < max && a.charAt(i) == b.charAt(i)) {
+            i++;
+        }
+        if (i > 0 && Character.isHighSurrogate(b.charAt(i - 1)))
+            i--;
+        return i;
+    }
+
+    /**
+     * Writes a non-negative number using 7 bits per byte, the highest bit of a
+     * byte telling whether more bytes follow.
+     *
+     * @param out   the output stream
+     * @param value the number
+     * @throws IOException if the number cannot be written
+     */
+    private static void writeVarint(DataOutputStream out, int value) throws IOException {
+        while ((value & ~0x7F) != 0) {
+            out.writeByte((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.writeByte(value);
+    }
+
+    /**
+     * Builds a snapshot from a text file, or loads an existing snapshot, and
+     * reports how long it took.
+     *
+     * @param args "build inputFile snapshotFile" or "load snapshotFile"
+     * @throws IOException if a file cannot be read or written
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length == 3 && args[0].equals("build")) {
+            long start = System.nanoTime();
+            HashIndex index = new HashIndex();
+            long words = ByteTokenizer.addAllWords(args[1], index);
+            int saved = write(index, args[2]);
+            long elapsed = System.nanoTime() - start;
+            System.out.printf("INFO: %d words read, %d words saved in snapshot.%n", words, saved);
+            System.out.printf("INFO: Building snapshot took %d ns (~%.3f seconds).%n",
+                    elapsed, elapsed / 1e9);
+        } else if (args.length == 2 && args[0].equals("load")) {
+            long start = System.nanoTime();
+            Index index = open(args[1]);
+            long elapsed = System.nanoTime() - start;
+            System.out.printf("INFO: Loading snapshot took %d ns (~%.3f seconds).%n",
+                    elapsed, elapsed / 1e9);
+            System.out.printf("INFO: %d words stored in index.%n", index.size());
+        } else {
+            System.err.println("Usage: java IndexSnapshot build inputFile snapshotFile");
+            System.err.println("       java IndexSnapshot load snapshotFile");
+            System.exit(1);
+        }
+    }
+}
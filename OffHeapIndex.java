@@ -0,0 +1,968 @@
+package project5;
+
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.IntPredicate;
+
+/**
+ * Represents a self-balancing (AVL) binary search tree whose nodes and words
+ * are kept outside the Java heap, in direct ByteBuffers. The heap only holds a
+ * few fields and the buffer objects, so the work of the garbage collector does
+ * not grow with the number of words in the index.
+ * Every node is a record of NODE_SIZE bytes in the node buffer, holding the
+ * indexes of its children (-1 for none), its count, the position and length of
+ * its word in the arena buffer, and its height. As in CompactIndex, words are
+ * stored with one byte per character when every character fits and two bytes
+ * otherwise, removed nodes are replaced by the last node, and the arena is
+ * compacted when more than half of it is taken by removed words.
+ * The memory of the buffers is released by close(), after which the index can
+ * no longer be used. Direct memory is limited by -XX:MaxDirectMemorySize, which
+ * by default equals the maximum heap size.
+ *
+ * @author Olivia Yu
+ * @version October 17, 2026
+ */
+public class OffHeapIndex implements Index, AutoCloseable {
+
+    private static final int NIL = -1;
+
+    /** Set in the length of words stored with two bytes per character. */
+    private static final int WIDE = 0x80000000;
+
+    private static final int LEFT = 0;
+    private static final int RIGHT = 4;
+    private static final int COUNT = 8;
+    private static final int OFFSET = 12;
+    private static final int LENGTH = 16;
+    private static final int HEIGHT = 20;
+    private static final int NODE_SIZE = 24;
+
+    private static final int MAX_BUFFER = Integer.MAX_VALUE - 8;
+
+    private ByteBuffer nodes;
+    private ByteBuffer arena;
+    private int arenaLength = 0;
+    private int garbage = 0;
+    private int root = NIL;
+    private int size = 0;
+    private int modCount = 0;
+    private boolean closed = false;
+
+    /** The node unlinked by the last call to removeHelper. */
+    private int freed;
+
+    /**
+     * Constructs a new empty OffHeapIndex.
+     */
+    public OffHeapIndex() {
+        this(1024);
+    }
+
+    /**
+     * Constructs a new empty OffHeapIndex with room for the given number of
+     * unique words.
+     *
+     * @param expectedSize the expected number of unique words.
+     * @throws IllegalArgumentException if expectedSize is negative or too large.
+     */
+    public OffHeapIndex(int expectedSize) throws IllegalArgumentException {
+        if (expectedSize < 0 || expectedSize > MAX_BUFFER / NODE_SIZE)
+            throw new IllegalArgumentException("expected size must be between 0 and "
+                    + MAX_BUFFER / NODE_SIZE);
+        int capacity = Math.max(16, expectedSize);
+        nodes = allocate(capacity * NODE_SIZE);
+        arena = allocate((int) Math.min(MAX_BUFFER, capacity * 8L));
+    }
+
+    /**
+     * Provides an iterator for the OffHeapIndex.
+     * The iterator traverses the tree in sorted order, creating a Word object
+     * for every word returned, and supports the remove function.
+     *
+     * @return an Iterator for the OffHeapIndex.
+     * @throws IllegalStateException if the index is closed.
+     */
+    @Override
+    public Iterator<Word> iterator() throws IllegalStateException {
+        ensureOpen();
+        return new OffHeapIterator();
+    }
+
+    /**
+     * Adds a word to the OffHeapIndex. If the word already exists, its count is
+     * incremented.
+     *
+     * @param item the word to be added.
+     * @throws IllegalArgumentException if the provided item is null.
+     * @throws IllegalStateException    if the index is closed or full.
+     */
+    @Override
+    public void add(String item) throws IllegalArgumentException, IllegalStateException {
+        add(item, 1);
+    }
+
+    /**
+     * Adds count occurrences of a word to the OffHeapIndex. If the word already
+     * exists, its count is increased by count.
+     *
+     * @param item  the word to be added.
+     * @param count the number of occurrences to be added.
+     * @throws IllegalArgumentException if the provided item is null or the count
+     *                                  is not positive.
+     * @throws IllegalStateException    if the index is closed or full.
+     */
+    @Override
+    public void add(String item, int count) throws IllegalArgumentException, IllegalStateException {
+        if (item == null) {
+            throw new IllegalArgumentException("Cannot add null element");
+        }
+        if (count <= 0) {
+            throw new IllegalArgumentException("count must be positive");
+        }
+        ensureOpen();
+
+        root = addHelper(item, count, root);
+    }
+
+    /**
+     * Recursively adds the specified item below the given node and rebalances
+     * the nodes on the way back up.
+     *
+     * @param item  The word to be added.
+     * @param count The number of occurrences to be added.
+     * @param cur   The current node being inspected.
+     * @return The (possibly new) root of this subtree.
+     */
+    private int addHelper(String item, int count, int cur) {
+        if (cur == NIL) {
+            return newNode(item, count);
+        }
+
+        int compare = compare(item, cur);
+
+        if (compare > 0) {
+            setRight(cur, addHelper(item, count, right(cur)));
+        } else if (compare < 0) {
+            setLeft(cur, addHelper(item, count, left(cur)));
+        } else {
+            nodes.putInt(cur * NODE_SIZE + COUNT, count(cur) + count);
+            return cur;
+        }
+
+        return rebalance(cur);
+    }
+
+    /**
+     * Allocates a leaf node for a new word and appends the word to the arena.
+     *
+     * @param item  the word.
+     * @param count its count.
+     * @return the index of the new node.
+     * @throws IllegalStateException if a buffer cannot grow any further.
+     */
+    private int newNode(String item, int count) throws IllegalStateException {
+        if ((size + 1) * NODE_SIZE > nodes.capacity())
+            nodes = grow(nodes, size * NODE_SIZE, (size + 1L) * NODE_SIZE);
+
+        boolean wide = isWide(item);
+        int bytes = wide ? 2 * item.length() : item.length();
+        if ((long) arenaLength + bytes > arena.capacity())
+            arena = grow(arena, arenaLength, (long) arenaLength + bytes);
+
+        int offset = arenaLength;
+        for (int i = 0; i < item.length(); i++) {
+            char c = item.charAt(i);
+            if (wide)
+                arena.putChar(offset + 2 * i, c);
+            else
+                arena.put(offset + i, (byte) c);
+        }
+        arenaLength += bytes;
+
+        int n = size++;
+        int base = n * NODE_SIZE;
+        nodes.putInt(base + LEFT, NIL);
+        nodes.putInt(base + RIGHT, NIL);
+        nodes.putInt(base + COUNT, count);
+        nodes.putInt(base + OFFSET, offset);
+        nodes.putInt(base + LENGTH, wide ? item.length() | WIDE : item.length());
+        nodes.putInt(base + HEIGHT, 1);
+        modCount++;
+        return n;
+    }
+
+    /**
+     * Replaces a buffer by one 1.5 times as large, copying its used part and
+     * releasing the old buffer.
+     *
+     * @param buffer the buffer to be replaced.
+     * @param used   the number of bytes in use.
+     * @param needed the minimum capacity of the new buffer.
+     * @return the new buffer.
+     * @throws IllegalStateException if the buffer would exceed 2 GB.
+     */
+    private static ByteBuffer grow(ByteBuffer buffer, int used, long needed) throws IllegalStateException {
+        if (needed > MAX_BUFFER)
+            throw new IllegalStateException("index is full");
+        long capacity = Math.min(MAX_BUFFER, Math.max(needed, buffer.capacity() + (buffer.capacity() >> 1)));
+        ByteBuffer grown = allocate((int) capacity);
+        grown.put(0, buffer, 0, used);
+        release(buffer);
+        return grown;
+    }
+
+    /**
+     * Removes a word from the OffHeapIndex.
+     *
+     * @param item the word to be removed.
+     * @throws IllegalArgumentException if the provided item is null.
+     * @throws IllegalStateException    if the index is closed.
+     */
+    @Override
+    public void remove(String item) throws IllegalArgumentException, IllegalStateException {
+        if (item == null)
+            throw new IllegalArgumentException("cannot remove a node whose name is null");
+        ensureOpen();
+
+        int before = size;
+        freed = NIL;
+        this.root = removeHelper(item, this.root);
+        if (size == before)
+            return;
+
+        modCount++;
+        garbage += isWide(item) ? 2 * item.length() : item.length();
+        moveLastTo(freed);
+        if (garbage > arenaLength / 2)
+            compactArena();
+    }
+
+    /**
+     * Recursively removes the specified item from the tree and rebalances the
+     * nodes on the way back up. The unlinked node is stored in freed.
+     *
+     * @param item The word to be removed.
+     * @param cur  The current node being inspected.
+     * @return The updated root of this subtree after removal.
+     */
+    private int removeHelper(String item, int cur) {
+        if (cur == NIL) {
+            return NIL;
+        }
+
+        int compare = compare(item, cur);
+
+        if (compare < 0) {
+            setLeft(cur, removeHelper(item, left(cur)));
+        } else if (compare > 0) {
+            setRight(cur, removeHelper(item, right(cur)));
+        } else {
+            if (left(cur) == NIL || right(cur) == NIL) {
+                size--;
+                freed = cur;
+                return left(cur) == NIL ? right(cur) : left(cur);
+            }
+
+            // take over the word of the successor, then unlink the successor
+            int tmp = right(cur);
+            while (left(tmp) != NIL)
+                tmp = left(tmp);
+            nodes.putInt(cur * NODE_SIZE + COUNT, count(tmp));
+            nodes.putInt(cur * NODE_SIZE + OFFSET, offset(tmp));
+            nodes.putInt(cur * NODE_SIZE + LENGTH, nodes.getInt(tmp * NODE_SIZE + LENGTH));
+            setRight(cur, removeSuccessor(right(cur)));
+        }
+
+        return rebalance(cur);
+    }
+
+    /**
+     * Unlinks the smallest node of a subtree and rebalances the nodes on the
+     * way back up. The unlinked node is stored in freed.
+     *
+     * @param cur The root of the subtree.
+     * @return The updated root of this subtree after removal.
+     */
+    private int removeSuccessor(int cur) {
+        if (left(cur) == NIL) {
+            size--;
+            freed = cur;
+            return right(cur);
+        }
+        setLeft(cur, removeSuccessor(left(cur)));
+        return rebalance(cur);
+    }
+
+    /**
+     * Moves the last node into a slot that was freed, so that the nodes keep
+     * occupying the indexes 0 to size - 1. The parent of the last node is found
+     * by searching for its word.
+     *
+     * @param slot the freed slot.
+     */
+    private void moveLastTo(int slot) {
+        int last = size;
+        if (slot == last)
+            return;
+
+        if (root == last) {
+            root = slot;
+        } else {
+            int cur = root;
+            while (true) {
+                int next = compareNodes(last, cur) < 0 ? left(cur) : right(cur);
+                if (next == last) {
+                    if (left(cur) == last)
+                        setLeft(cur, slot);
+                    else
+                        setRight(cur, slot);
+                    break;
+                }
+                cur = next;
+            }
+        }
+
+        nodes.put(slot * NODE_SIZE, nodes, last * NODE_SIZE, NODE_SIZE);
+    }
+
+    /**
+     * Copies the words of all nodes to a new arena without the words that were
+     * removed, and releases the old arena.
+     */
+    private void compactArena() {
+        int total = 0;
+        for (int n = 0; n < size; n++)
+            total += byteLength(n);
+
+        ByteBuffer compacted = allocate(Math.max(16, total));
+        int position = 0;
+        for (int n = 0; n < size; n++) {
+            int bytes = byteLength(n);
+            compacted.put(position, arena, offset(n), bytes);
+            nodes.putInt(n * NODE_SIZE + OFFSET, position);
+            position += bytes;
+        }
+        release(arena);
+        arena = compacted;
+        arenaLength = total;
+        garbage = 0;
+    }
+
+    /**
+     * Removes every word whose count satisfies the given predicate. The words
+     * that remain are collected in order during one traversal, and the node
+     * buffer is rebuilt from them in linear time as a perfectly balanced tree,
+     * which satisfies the AVL property. The order of the remaining nodes is
+     * itself kept off-heap.
+     *
+     * @param onCount predicate applied to the count of each word.
+     * @return the number of words removed.
+     * @throws IllegalArgumentException if onCount is null.
+     * @throws IllegalStateException    if the index is closed.
+     */
+    @Override
+    public int removeIf(IntPredicate onCount) throws IllegalArgumentException, IllegalStateException {
+        if (onCount == null)
+            throw new IllegalArgumentException("predicate cannot be null");
+        ensureOpen();
+
+        ByteBuffer kept = allocate(Math.max(4, size * 4));
+        int count = 0;
+        int[] stack = new int[64];
+        int depth = 0;
+        int cur = root;
+        while (cur != NIL || depth > 0) {
+            while (cur != NIL) {
+                stack[depth++] = cur;
+                cur = left(cur);
+            }
+            cur = stack[--depth];
+            if (!onCount.test(count(cur)))
+                kept.putInt(4 * count++, cur);
+            cur = right(cur);
+        }
+
+        int removed = size - count;
+        if (removed > 0) {
+            // node i of the new buffer is the i-th remaining word in sorted order
+            ByteBuffer rebuilt = allocate(Math.max(16, count) * NODE_SIZE);
+            for (int i = 0; i < count; i++)
+                rebuilt.put(i * NODE_SIZE, nodes, kept.getInt(4 * i) * NODE_SIZE, NODE_SIZE);
+            release(nodes);
+            nodes = rebuilt;
+            size = count;
+            root = buildBalanced(0, count);
+            modCount++;
+            compactArena();
+        }
+        release(kept);
+        return removed;
+    }
+
+    /**
+     * Links the nodes of a sorted range into a balanced tree.
+     *
+     * @param from first node of the range (inclusive).
+     * @param to   last node of the range (exclusive).
+     * @return the root of the tree, or NIL if the range is empty.
+     */
+    private int buildBalanced(int from, int to) {
+        if (from >= to)
+            return NIL;
+
+        int mid = (from + to) >>> 1;
+        setLeft(mid, buildBalanced(from, mid));
+        setRight(mid, buildBalanced(mid + 1, to));
+        updateHeight(mid);
+        return mid;
+    }
+
+    /**
+     * Retrieves the count of the specified word in the OffHeapIndex.
+     *
+     * @param item The word whose count is to be returned.
+     * @return The count of the word, or -1 if the word is not in the tree.
+     * @throws IllegalArgumentException if the provided item is null.
+     * @throws IllegalStateException    if the index is closed.
+     */
+    @Override
+    public int get(String item) throws IllegalArgumentException, IllegalStateException {
+        if (item == null)
+            throw new IllegalArgumentException("cannot get a node whose name is null");
+        ensureOpen();
+
+        int cur = root;
+        while (cur != NIL) {
+            int compare = compare(item, cur);
+            if (compare < 0)
+                cur = left(cur);
+            else if (compare > 0)
+                cur = right(cur);
+            else
+                return count(cur);
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the size of the OffHeapIndex.
+     *
+     * @return the number of unique words in the OffHeapIndex.
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Releases the off-heap memory of the index. Closing an index that is
+     * already closed has no effect.
+     */
+    @Override
+    public void close() {
+        if (closed)
+            return;
+        closed = true;
+        release(nodes);
+        release(arena);
+        nodes = null;
+        arena = null;
+        root = NIL;
+        size = 0;
+        modCount++;
+    }
+
+    /**
+     * Checks that the index has not been closed.
+     *
+     * @throws IllegalStateException if the index is closed.
+     */
+    private void ensureOpen() throws IllegalStateException {
+        if (closed)
+            throw new IllegalStateException("index is closed");
+    }
+
+    /**
+     * Allocates a direct buffer in the native byte order.
+     *
+     * @param capacity the capacity in bytes.
+     * @return the new buffer.
+     */
+    private static ByteBuffer allocate(int capacity) {
+        return ByteBuffer.allocateDirect(capacity).order(ByteOrder.nativeOrder());
+    }
+
+    private static final Object UNSAFE;
+    private static final Method INVOKE_CLEANER;
+
+    static {
+        Object unsafe = null;
+        Method invokeCleaner = null;
+        try {
+            Class<?> c = Class.forName("sun.misc.Unsafe");
+            Field f = c.getDeclaredField("theUnsafe");
+            f.setAccessible(true);
+            unsafe = f.get(null);
+            invokeCleaner = c.getMethod("invokeCleaner", ByteBuffer.class);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            // the memory is then released when the buffer is garbage collected
+        }
+        UNSAFE = unsafe;
+        INVOKE_CLEANER = invokeCleaner;
+    }
+
+    /**
+     * Frees the memory of a direct buffer right away instead of waiting for the
+     * buffer to be garbage collected. The buffer must not be used afterwards.
+     *
+     * @param buffer the buffer to be released.
+     */
+    private static void release(ByteBuffer buffer) {
+        if (INVOKE_CLEANER == null)
+            return;
+        try {
+            INVOKE_CLEANER.invoke(UNSAFE, buffer);
+        } catch (ReflectiveOperationException e) {
+            // left to the garbage collector
+        }
+    }
+
+    /**
+     * Returns the left child of a node.
+     *
+     * @param n the node.
+     * @return the left child, or NIL.
+     */
+    private int left(int n) {
+        return nodes.getInt(n * NODE_SIZE + LEFT);
+    }
+
+    /**
+     * Returns the right child of a node.
+     *
+     * @param n the node.
+     * @return the right child, or NIL.
+     */
+    private int right(int n) {
+        return nodes.getInt(n * NODE_SIZE + RIGHT);
+    }
+
+    /**
+     * Sets the left child of a node.
+     *
+     * @param n     the node.
+     * @param child the new left child, or NIL.
+     */
+    private void setLeft(int n, int child) {
+        nodes.putInt(n * NODE_SIZE + LEFT, child);
+    }
+
+    /**
+     * Sets the right child of a node.
+     *
+     * @param n     the node.
+     * @param child the new right child, or NIL.
+     */
+    private void setRight(int n, int child) {
+        nodes.putInt(n * NODE_SIZE + RIGHT, child);
+    }
+
+    /**
+     * Returns the count of a node.
+     *
+     * @param n the node.
+     * @return the count.
+     */
+    private int count(int n) {
+        return nodes.getInt(n * NODE_SIZE + COUNT);
+    }
+
+    /**
+     * Returns the position of the word of a node in the arena.
+     *
+     * @param n the node.
+     * @return the position.
+     */
+    private int offset(int n) {
+        return nodes.getInt(n * NODE_SIZE + OFFSET);
+    }
+
+    /**
+     * Returns the number of characters of the word of a node.
+     *
+     * @param n the node.
+     * @return the number of characters.
+     */
+    private int length(int n) {
+        return nodes.getInt(n * NODE_SIZE + LENGTH) & ~WIDE;
+    }
+
+    /**
+     * Checks whether the word of a node is stored with two bytes per character.
+     *
+     * @param n the node.
+     * @return true if the word is stored with two bytes per character.
+     */
+    private boolean wide(int n) {
+        return (nodes.getInt(n * NODE_SIZE + LENGTH) & WIDE) != 0;
+    }
+
+    /**
+     * Returns the number of bytes the word of a node takes in the arena.
+     *
+     * @param n the node.
+     * @return the number of bytes.
+     */
+    private int byteLength(int n) {
+        return wide(n) ? 2 * length(n) : length(n);
+    }
+
+    /**
+     * Returns a character of the word of a node.
+     *
+     * @param offset the position of the word in the arena.
+     * @param wide   whether the word is stored with two bytes per character.
+     * @param i      the position of the character.
+     * @return the character.
+     */
+    private char charAt(int offset, boolean wide, int i) {
+        return wide ? arena.getChar(offset + 2 * i) : (char) (arena.get(offset + i) & 0xFF);
+    }
+
+    /**
+     * Returns the word of a node as a String.
+     *
+     * @param n the node.
+     * @return the word.
+     */
+    private String word(int n) {
+        int offset = offset(n);
+        boolean wide = wide(n);
+        char[] chars = new char[length(n)];
+        for (int i = 0; i < chars.length; i++)
+            chars[i] = charAt(offset, wide, i);
+        return new String(chars);
+    }
+
+    /**
+     * Compares a word with the word of a node, in the order of
+     * String.compareTo().
+     *
+     * @param item the word.
+     * @param n    the node.
+     * @return a negative number, zero, or a positive number as the word is less
+     *         than, equal to, or greater than the word of the node.
+     */
+    private int compare(String item, int n) {
+        int offset = offset(n);
+        boolean wide = wide(n);
+        int length = length(n);
+        int limit = Math.min(item.length(), length);
+        for (int i = 0; i < limit; i++) {
+            int d = item.charAt(i) - charAt(offset, wide, i);
+            if (d != 0)
+                return d;
+        }
+        return item.length() - length;
+    }
+
+    /**
+     * Compares the words of two nodes, in the order of String.compareTo().
+     *
+     * @param a the first node.
+     * @param b the second node.
+     * @return a negative number, zero, or a positive number as the word of a is
+     *         less than, equal to, or greater than the word of b.
+     */
+    private int compareNodes(int a, int b) {
+        int offsetA = offset(a);
+        int offsetB = offset(b);
+        boolean wideA = wide(a);
+        boolean wideB = wide(b);
+        int limit = Math.min(length(a), length(b));
+        for (int i = 0; i < limit; i++) {
+            int d = charAt(offsetA, wideA, i) - charAt(offsetB, wideB, i);
+            if (d != 0)
+                return d;
+        }
+        return length(a) - length(b);
+    }
+
+    /**
+     * Checks whether a word needs two bytes per character in the arena.
+     *
+     * @param item the word.
+     * @return true if a character of the word does not fit in one byte.
+     */
+    private static boolean isWide(String item) {
+        for (int i = 0; i < item.length(); i++) {
+            if (item.charAt(i) > 0xFF)
+                return true;
+        }
+        return false;
+    }
+
+    /**
+     * Returns the height of the given node, where an empty subtree has height 0.
+     *
+     * @param n The node whose height is to be returned.
+     * @return The height of the node.
+     */
+    private int height(int n) {
+        return n == NIL ? 0 : nodes.getInt(n * NODE_SIZE + HEIGHT);
+    }
+
+    /**
+     * Recomputes the height of the given node from its children.
+     *
+     * @param n The node whose height is to be updated.
+     */
+    private void updateHeight(int n) {
+        nodes.putInt(n * NODE_SIZE + HEIGHT, 1 + Math.max(height(left(n)), height(right(n))));
+    }
+
+    /**
+     * Restores the AVL property at the given node by performing at most two
+     * rotations.
+     *
+     * @param n The node to be rebalanced.
+     * @return The new root of this subtree.
+     */
+    private int rebalance(int n) {
+        updateHeight(n);
+        int balance = height(left(n)) - height(right(n));
+
+        if (balance > 1) {
+            if (height(left(left(n))) < height(right(left(n)))) {
+                setLeft(n, rotateLeft(left(n)));
+            }
+            return rotateRight(n);
+        }
+
+        if (balance < -1) {
+            if (height(right(right(n))) < height(left(right(n)))) {
+                setRight(n, rotateRight(right(n)));
+            }
+            return rotateLeft(n);
+        }
+
+        return n;
+    }
+
+    /**
+     * Rotates the subtree rooted at the given node to the right.
+     *
+     * @param n The root of the subtree.
+     * @return The new root of the subtree.
+     */
+    private int rotateRight(int n) {
+        int newRoot = left(n);
+        setLeft(n, right(newRoot));
+        setRight(newRoot, n);
+        updateHeight(n);
+        updateHeight(newRoot);
+        return newRoot;
+    }
+
+    /**
+     * Rotates the subtree rooted at the given node to the left.
+     *
+     * @param n The root of the subtree.
+     * @return The new root of the subtree.
+     */
+    private int rotateLeft(int n) {
+        int newRoot = right(n);
+        setRight(n, left(newRoot));
+        setLeft(newRoot, n);
+        updateHeight(n);
+        updateHeight(newRoot);
+        return newRoot;
+    }
+
+    /**
+     * Compares the specified object with this OffHeapIndex for equality.
+     * Two Index objects are considered equal if they contain the same number of
+     * words, and those words are pairwise equal.
+     *
+     * @param o the object to be compared for equality with this OffHeapIndex.
+     * @return true if the specified object is equal to this OffHeapIndex.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (o == null)
+            return false;
+
+        if (o == this)
+            return true;
+
+        if (!(o instanceof Index))
+            return false;
+
+        Index obj = (Index) o;
+
+        if (this.size() != obj.size())
+            return false;
+
+        // using two iterators to iterate through two indexes and checks the equality
+        // for each data value
+        Iterator<Word> it1 = this.iterator();
+        Iterator<Word> it2 = obj.iterator();
+
+        while (it1.hasNext() && it2.hasNext()) {
+            Word data1 = it1.next();
+            Word data2 = it2.next();
+
+            if (!data1.equals(data2))
+                return false;
+
+        }
+
+        return !it1.hasNext() && !it2.hasNext();
+
+    }
+
+    /**
+     * Returns a hash code for this OffHeapIndex, consistent with equals().
+     *
+     * @return the hash code of this OffHeapIndex.
+     */
+    @Override
+    public int hashCode() {
+        return Index.hashCodeOf(this);
+    }
+
+    /**
+     * Returns the string representation of this OffHeapIndex.
+     * The string representation consists of a list of the index's elements in
+     * sorted order enclosed in square brackets ("[]").
+     * Adjacent elements are separated by the characters ", " (comma and space).
+     *
+     * @return the string representation of this OffHeapIndex.
+     */
+    public String toString() {
+        if (size() == 0) {
+            return "[]";
+        }
+
+        StringBuilder str = new StringBuilder("[");
+        Iterator<Word> it = iterator();
+
+        if (it.hasNext()) {
+            str.append(it.next());
+        }
+
+        while (it.hasNext()) {
+            str.append(", ").append(it.next());
+        }
+
+        return str.append("]").toString();
+    }
+
+    /**
+     * An iterator for the OffHeapIndex that traverses the tree in sorted order
+     * using a stack of node indexes and creates Word objects on demand.
+     */
+    private class OffHeapIterator implements Iterator<Word> {
+
+        private int[] stack = new int[64];
+        private int depth = 0;
+        private Word lastReturned = null;
+        private int expectedModCount = modCount;
+
+        /**
+         * Constructs an iterator positioned at the smallest word of the tree.
+         */
+        OffHeapIterator() {
+            pushLeft(root);
+        }
+
+        /**
+         * Pushes the given node and all of its left descendants onto the stack.
+         *
+         * @param n The starting node.
+         */
+        private void pushLeft(int n) {
+            while (n != NIL) {
+                stack[depth++] = n;
+                n = left(n);
+            }
+        }
+
+        /**
+         * Checks if there are more elements in the iteration.
+         *
+         * @return true if the iteration has more elements.
+         */
+        @Override
+        public boolean hasNext() {
+            return depth > 0;
+        }
+
+        /**
+         * Returns the next element in the iteration.
+         *
+         * @return A new Word object holding the next word and its count.
+         * @throws NoSuchElementException          if the iteration has no more
+         *                                         elements.
+         * @throws ConcurrentModificationException if the tree was structurally
+         *                                         modified or closed outside this
+         *                                         iterator.
+         */
+        @Override
+        public Word next() throws NoSuchElementException {
+            if (expectedModCount != modCount) {
+                throw new ConcurrentModificationException("index modified during iteration");
+            }
+            if (!hasNext()) {
+                throw new NoSuchElementException("end of the tree!");
+            }
+
+            int n = stack[--depth];
+            pushLeft(right(n));
+            lastReturned = new Word(word(n), count(n));
+            return lastReturned;
+        }
+
+        /**
+         * Removes the last element returned by this iterator from the
+         * OffHeapIndex.
+         *
+         * @throws IllegalStateException if the next method has not yet been called,
+         *                               or the remove method has already been called
+         *                               after the last call to next.
+         */
+        @Override
+        public void remove() throws IllegalStateException {
+            if (lastReturned == null) {
+                throw new IllegalStateException("next() must be called before remove method");
+            }
+            if (expectedModCount != modCount) {
+                throw new ConcurrentModificationException("index modified during iteration");
+            }
+
+            String removed = lastReturned.getWord();
+            OffHeapIndex.this.remove(removed);
+            expectedModCount = modCount;
+            lastReturned = null;
+
+            // rebuild the stack so that it holds the path to the first word
+            // greater than the removed one
+            depth = 0;
+            int cur = root;
+            while (cur != NIL) {
+                if (compare(removed, cur) < 0) {
+                    stack[depth++] = cur;
+                    cur = left(cur);
+                } else {
+                    cur = right(cur);
+                }
+            }
+        }
+
+    }
+}
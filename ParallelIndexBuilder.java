@@ -0,0 +1,378 @@
+package project5;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * ParallelIndexBuilder builds an index from a list of words using several
+ * threads. The list is split into ranges by a fork-join pool, each range is
+ * counted into its own partial HashIndex, and the partial indexes are merged
+ * pairwise into one final index. The result is equal to the index built by
+ * adding all words sequentially.
+ * A file can also be parsed in parallel: it is split into byte ranges whose
+ * boundaries are moved to just after an ASCII whitespace byte. Such a byte
+ * never occurs inside a multi-byte UTF-8 sequence and always separates two
+ * Scanner tokens, so every range holds whole tokens and is tokenized on its
+ * own by a ByteTokenizer. The counts are the same as the ones of the words
+ * returned by FileParser.getAllWords(). A gzip compressed file cannot be
+ * split, and is parsed by a single thread while it is decompressed.
+ *
+ * @author Olivia Yu
+ * @version October 17, 2026
+ */
+public class ParallelIndexBuilder {
+
+    /** Ranges shorter than this are counted by a single task. */
+    private static final int THRESHOLD = 16384;
+
+    /** Files are not split into ranges shorter than this many bytes. */
+    private static final int MIN_RANGE = 1 << 20;
+
+    /** Number of ranges per thread, so that uneven ranges balance out. */
+    private static final int RANGES_PER_THREAD = 4;
+
+    private final int threads;
+
+    /**
+     * Constructs a builder that uses as many threads as there are available
+     * processors.
+     */
+    public ParallelIndexBuilder() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructs a builder that uses the given number of threads.
+     *
+     * @param threads the number of worker threads.
+     * @throws IllegalArgumentException if threads is not positive.
+     */
+    public ParallelIndexBuilder(int threads) throws IllegalArgumentException {
+        if (threads <= 0)
+            throw new IllegalArgumentException("number of threads must be positive");
+        this.threads = threads;
+    }
+
+    /**
+     * Returns the number of threads used by this builder.
+     *
+     * @return the number of worker threads.
+     */
+    public int getThreads() {
+        return threads;
+    }
+
+    /**
+     * Builds an index containing all of the given words.
+     *
+     * @param words the words to be counted.
+     * @return an index with the count of every word in the list.
+     * @throws IllegalArgumentException if words is null.
+     */
+    public HashIndex build(List<String> words) throws IllegalArgumentException {
+        if (words == null)
+            throw new IllegalArgumentException("can not build from null list");
+
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        try {
+            return pool.invoke(new CountTask(words, 0, words.size()));
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Builds an index of all words of the given file, parsing parts of the
+     * file at the same time.
+     *
+     * @param fileName name of the UTF-8 encoded input file.
+     * @return an index with the count of every word in the file.
+     * @throws IOException if the input file cannot be opened for reading.
+     */
+    public HashIndex buildFromFile(String fileName) throws IOException {
+        return buildFromFile(fileName, TokenFilter.DEFAULT);
+    }
+
+    /**
+     * Builds an index of all words of the given file, normalized with the
+     * given filter, parsing parts of the file at the same time.
+     *
+     * @param fileName name of the UTF-8 encoded input file.
+     * @param filter   the normalization applied to every token.
+     * @return an index with the count of every word in the file.
+     * @throws IOException              if the input file cannot be opened for
+     *                                  reading.
+     * @throws IllegalArgumentException if filter is null.
+     */
+    public HashIndex buildFromFile(String fileName, TokenFilter filter)
+            throws IOException, IllegalArgumentException {
+        if (filter == null)
+            throw new IllegalArgumentException("filter cannot be null");
+        File f = new File(fileName);
+        // if file does not exist, throw an exception
+        if (!f.exists())
+            throw new IOException(String.format("File: %s  does not exist.", fileName));
+        // if file cannot be read
+        if (!f.canRead())
+            throw new IOException(String.format(
+                    "File: %s  cannot be accessed for reading.", fileName));
+
+        // a compressed file can only be decompressed from its start
+        if (DecompressingInputStream.isCompressed(f)) {
+            HashIndex index = new HashIndex();
+            ByteTokenizer.forEachWord(fileName, filter, index::add);
+            return index;
+        }
+
+        try (RandomAccessFile file = new RandomAccessFile(f, "r");
+                FileChannel channel = file.getChannel()) {
+            long[] bounds = split(channel);
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                return pool.invoke(new RangeTask(channel, bounds, filter, 0, bounds.length - 1));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            } finally {
+                pool.shutdown();
+            }
+        }
+    }
+
+    /**
+     * Splits the file into ranges of about the same length, each ending just
+     * after an ASCII whitespace byte or at the end of the file.
+     *
+     * @param channel the input file.
+     * @return the boundaries of the ranges, starting with 0 and ending with
+     *         the size of the file.
+     * @throws IOException if the file cannot be read.
+     */
+    private long[] split(FileChannel channel) throws IOException {
+        long size = channel.size();
+        int ranges = (int) Math.max(1, Math.min((long) threads * RANGES_PER_THREAD, size / MIN_RANGE));
+        long[] bounds = new long[ranges + 1];
+        int count = 1;
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        for (int i = 1; i < ranges; i++) {
+            long bound = Math.max(size / ranges * i, bounds[count - 1]);
+            bound = afterWhitespace(channel, bound, buffer);
+            // a range without whitespace is joined with the next one
+            if (bound > bounds[count - 1] && bound < size)
+                bounds[count++] = bound;
+        }
+        bounds[count++] = size;
+        return Arrays.copyOf(bounds, count);
+    }
+
+    /**
+     * Finds the first position at or after the given one that follows an
+     * ASCII whitespace byte.
+     *
+     * @param channel  the input file.
+     * @param position the position to start from, greater than 0.
+     * @param buffer   a buffer for reading the file.
+     * @return the position after the whitespace byte, or the size of the file
+     *         if there is no whitespace after the position.
+     * @throws IOException if the file cannot be read.
+     */
+    private static long afterWhitespace(FileChannel channel, long position, ByteBuffer buffer)
+            throws IOException {
+        long at = position - 1;
+        while (true) {
+            buffer.clear();
+            int n = channel.read(buffer, at);
+            if (n < 0)
+                return channel.size();
+            for (int i = 0; i < n; i++) {
+                if (ByteTokenizer.isWhitespace(buffer.get(i)))
+                    return at + i + 1;
+            }
+            at += n;
+        }
+    }
+
+    /**
+     * Merges the smaller of two partial indexes into the larger one.
+     *
+     * @param a a partial index.
+     * @param b another partial index.
+     * @return the index containing the counts of both.
+     */
+    private static HashIndex merge(HashIndex a, HashIndex b) {
+        if (a.size() < b.size()) {
+            b.merge(a);
+            return b;
+        }
+        a.merge(b);
+        return a;
+    }
+
+    /**
+     * Counts one range of the word list, splitting it in halves while it is
+     * longer than the threshold.
+     */
+    private static class CountTask extends RecursiveTask<HashIndex> {
+        private static final long serialVersionUID = 1L;
+
+        private final List<String> words;
+        private final int from;
+        private final int to;
+
+        /**
+         * Constructs a task counting words[from, to).
+         *
+         * @param words the complete word list.
+         * @param from  the first position of the range (inclusive).
+         * @param to    the last position of the range (exclusive).
+         */
+        CountTask(List<String> words, int from, int to) {
+            this.words = words;
+            this.from = from;
+            this.to = to;
+        }
+
+        /**
+         * Counts the range, or splits it and merges the two partial indexes.
+         *
+         * @return the partial index for this range.
+         */
+        @Override
+        protected HashIndex compute() {
+            if (to - from <= THRESHOLD) {
+                HashIndex partial = new HashIndex();
+                for (int i = from; i < to; i++) {
+                    partial.add(words.get(i));
+                }
+                return partial;
+            }
+
+            int mid = (from + to) >>> 1;
+            CountTask left = new CountTask(words, from, mid);
+            left.fork();
+            HashIndex right = new CountTask(words, mid, to).compute();
+            HashIndex leftResult = left.join();
+
+            // merge the smaller index into the larger one
+            return merge(leftResult, right);
+        }
+    }
+
+    /**
+     * Tokenizes a sequence of ranges of a file, splitting the sequence in
+     * halves until it is a single range.
+     */
+    private static class RangeTask extends RecursiveTask<HashIndex> {
+        private static final long serialVersionUID = 1L;
+
+        private final FileChannel channel;
+        private final long[] bounds;
+        private final TokenFilter filter;
+        private final int from;
+        private final int to;
+
+        /**
+         * Constructs a task tokenizing the ranges from to to, the range i
+         * being the bytes from bounds[i] to bounds[i + 1].
+         *
+         * @param channel the input file.
+         * @param bounds  the boundaries of all ranges.
+         * @param filter  the normalization applied to every token.
+         * @param from    the first range (inclusive).
+         * @param to      the last range (exclusive).
+         */
+        RangeTask(FileChannel channel, long[] bounds, TokenFilter filter, int from, int to) {
+            this.channel = channel;
+            this.bounds = bounds;
+            this.filter = filter;
+            this.from = from;
+            this.to = to;
+        }
+
+        /**
+         * Tokenizes the range, or splits the sequence and merges the two
+         * partial indexes.
+         *
+         * @return the partial index for these ranges.
+         * @throws UncheckedIOException if the file cannot be read.
+         */
+        @Override
+        protected HashIndex compute() throws UncheckedIOException {
+            if (to - from == 1) {
+                HashIndex partial = new HashIndex();
+                try {
+                    ByteTokenizer.tokenize(channel, bounds[from], bounds[to],
+                            new ByteTokenizer(partial::add, filter));
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return partial;
+            }
+
+            int mid = (from + to) >>> 1;
+            RangeTask left = new RangeTask(channel, bounds, filter, from, mid);
+            left.fork();
+            HashIndex right = new RangeTask(channel, bounds, filter, mid, to).compute();
+            return merge(left.join(), right);
+        }
+    }
+
+    /**
+     * Reads the given input file and reports how long the parallel build takes
+     * with 1, 2, 4, ... threads up to the given maximum, together with the
+     * speedup over a single thread.
+     *
+     * @param args the input file name, optionally followed by the maximum
+     *             number of threads.
+     * @throws IOException if the input file cannot be read.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.err.println("Usage: java ParallelIndexBuilder inputFile [maxThreads]");
+            System.exit(1);
+        }
+        int maxThreads = args.length > 1 ? Integer.parseInt(args[1])
+                : Runtime.getRuntime().availableProcessors();
+
+        List<String> words;
+        try (FileParser parser = new FileParser(args[0])) {
+            words = parser.getAllWords();
+        }
+        System.out.printf("INFO: %d words read.%n", words.size());
+
+        long single = 0;
+        for (int t = 1; t <= maxThreads; t = t < maxThreads && t * 2 > maxThreads ? maxThreads : t * 2) {
+            ParallelIndexBuilder builder = new ParallelIndexBuilder(t);
+            builder.build(words); // warm up
+            long start = System.nanoTime();
+            Index index = builder.build(words);
+            long elapsed = System.nanoTime() - start;
+            if (t == 1)
+                single = elapsed;
+            System.out.printf("INFO: %2d thread(s): creating index took %d ns (~%.3f seconds), "
+                    + "speedup %.2fx, %d words stored in index.%n",
+                    t, elapsed, elapsed / 1e9, (double) single / elapsed, index.size());
+        }
+
+        long singleFile = 0;
+        for (int t = 1; t <= maxThreads; t = t < maxThreads && t * 2 > maxThreads ? maxThreads : t * 2) {
+            ParallelIndexBuilder builder = new ParallelIndexBuilder(t);
+            builder.buildFromFile(args[0]); // warm up
+            long start = System.nanoTime();
+            Index index = builder.buildFromFile(args[0]);
+            long elapsed = System.nanoTime() - start;
+            if (t == 1)
+                singleFile = elapsed;
+            System.out.printf("INFO: %2d thread(s): parsing file and creating index took %d ns "
+                    + "(~%.3f seconds), speedup %.2fx, %d words stored in index.%n",
+                    t, elapsed, elapsed / 1e9, (double) singleFile / elapsed, index.size());
+        }
+    }
+}
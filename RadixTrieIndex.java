@@ -0,0 +1,654 @@
+package project5;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.ConcurrentModificationException;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.IntPredicate;
+
+/**
+ * Represents a compressed trie (radix tree) that stores words and their
+ * counts. Words sharing a prefix share the nodes of that prefix, and chains of
+ * nodes with a single child are merged into one node labelled with several
+ * characters. Only the counts are stored in the nodes; Word objects are
+ * created on demand by the iterator.
+ * The children of every node are kept sorted by their first character, so a
+ * depth-first traversal visits the words in sorted order without comparing
+ * them. Words starting with a given prefix can be listed with prefixScan().
+ *
+ * @author Olivia Yu
+ * @version October 17, 2026
+ */
+public class RadixTrieIndex implements Index {
+
+    private static final Node[] NO_CHILDREN = new Node[0];
+
+    private final Node root = new Node(new char[0]);
+    private int size = 0;
+    private int modCount = 0;
+
+    /**
+     * Provides an iterator for the RadixTrieIndex.
+     * The iterator traverses the trie in sorted order and supports the remove
+     * function.
+     *
+     * @return an Iterator for the RadixTrieIndex.
+     */
+    @Override
+    public Iterator<Word> iterator() {
+        return new TrieIterator();
+    }
+
+    /**
+     * Adds a word to the RadixTrieIndex. If the word already exists, its count
+     * is incremented.
+     *
+     * @param item the word to be added.
+     * @throws IllegalArgumentException if the provided item is null.
+     */
+    @Override
+    public void add(String item) throws IllegalArgumentException {
+        add(item, 1);
+    }
+
+    /**
+     * Adds count occurrences of a word to the trie. If the word already
+     * exists, its count is increased by count.
+     *
+     * @param item  the word to be added.
+     * @param count the number of occurrences to be added.
+     * @throws IllegalArgumentException if the item is null or the count is not
+     *                                  positive.
+     */
+    @Override
+    public void add(String item, int count) throws IllegalArgumentException {
+        if (item == null)
+            throw new IllegalArgumentException("Cannot add null element");
+        if (count <= 0)
+            throw new IllegalArgumentException("count must be positive");
+
+        Node cur = root;
+        int pos = 0;
+        while (pos < item.length()) {
+            int i = cur.find(item.charAt(pos));
+            if (i < 0) {
+                // no child starts with the next character: add a leaf
+                Node leaf = new Node(item.substring(pos).toCharArray());
+                cur.insertChild(-i - 1, leaf);
+                cur = leaf;
+                pos = item.length();
+                break;
+            }
+
+            Node child = cur.children[i];
+            int common = commonPrefix(child.label, item, pos);
+            if (common < child.label.length) {
+                // the word leaves the label in the middle: split the child
+                Node middle = new Node(slice(child.label, 0, common));
+                child.label = slice(child.label, common, child.label.length);
+                middle.children = new Node[] { child };
+                middle.childCount = 1;
+                cur.children[i] = middle;
+                modCount++;
+                child = middle;
+            }
+            cur = child;
+            pos += common;
+        }
+
+        if (cur.count == 0) {
+            size++;
+            modCount++;
+        }
+        cur.count += count;
+    }
+
+    /**
+     * Removes a word from the RadixTrieIndex. Nodes that are no longer needed
+     * are unlinked and single-child chains are merged again.
+     *
+     * @param item the word to be removed.
+     * @throws IllegalArgumentException if the provided item is null.
+     */
+    @Override
+    public void remove(String item) throws IllegalArgumentException {
+        if (item == null)
+            throw new IllegalArgumentException("cannot remove a node whose name is null");
+
+        removeHelper(root, item, 0);
+    }
+
+    /**
+     * Recursively removes the word below the given node and compacts the nodes
+     * on the way back up.
+     *
+     * @param cur  The current node.
+     * @param item The word to be removed.
+     * @param pos  The number of characters of the word matched by cur.
+     * @return true if the word was found and removed.
+     */
+    private boolean removeHelper(Node cur, String item, int pos) {
+        if (pos == item.length()) {
+            if (cur.count == 0)
+                return false;
+            cur.count = 0;
+            size--;
+            modCount++;
+            return true;
+        }
+
+        int i = cur.find(item.charAt(pos));
+        if (i < 0)
+            return false;
+        Node child = cur.children[i];
+        int common = commonPrefix(child.label, item, pos);
+        if (common < child.label.length || !removeHelper(child, item, pos + common))
+            return false;
+
+        compact(cur, i);
+        return true;
+    }
+
+    /**
+     * Unlinks the i-th child of the node if it holds no words, or merges it with
+     * its only child if it does not hold a word itself.
+     *
+     * @param parent The parent node.
+     * @param i      The position of the child.
+     */
+    private void compact(Node parent, int i) {
+        Node child = parent.children[i];
+        if (child.count != 0)
+            return;
+
+        if (child.childCount == 0) {
+            parent.removeChild(i);
+        } else if (child.childCount == 1) {
+            Node grandChild = child.children[0];
+            char[] label = new char[child.label.length + grandChild.label.length];
+            System.arraycopy(child.label, 0, label, 0, child.label.length);
+            System.arraycopy(grandChild.label, 0, label, child.label.length, grandChild.label.length);
+            grandChild.label = label;
+            parent.children[i] = grandChild;
+        }
+    }
+
+    /**
+     * Removes every word whose count satisfies the given predicate in a single
+     * depth-first pass, compacting the trie on the way back up.
+     *
+     * @param onCount predicate applied to the count of each word.
+     * @return the number of words removed.
+     * @throws IllegalArgumentException if onCount is null.
+     */
+    @Override
+    public int removeIf(IntPredicate onCount) throws IllegalArgumentException {
+        if (onCount == null)
+            throw new IllegalArgumentException("predicate cannot be null");
+
+        int before = size;
+        removeIfHelper(root, onCount);
+        if (size != before)
+            modCount++;
+        return before - size;
+    }
+
+    /**
+     * Recursively removes the matching words of the subtree rooted at the node.
+     *
+     * @param cur     The root of the subtree.
+     * @param onCount predicate applied to the count of each word.
+     */
+    private void removeIfHelper(Node cur, IntPredicate onCount) {
+        if (cur.count != 0 && onCount.test(cur.count)) {
+            cur.count = 0;
+            size--;
+        }
+        for (int i = cur.childCount - 1; i >= 0; i--) {
+            removeIfHelper(cur.children[i], onCount);
+            compact(cur, i);
+        }
+    }
+
+    /**
+     * Retrieves the count of the specified word in the trie.
+     *
+     * @param item The word whose count is to be returned.
+     * @throws IllegalArgumentException if the provided String item is null.
+     * @return The count of the word, or -1 if the word is not in the trie.
+     */
+    @Override
+    public int get(String item) throws IllegalArgumentException {
+        if (item == null)
+            throw new IllegalArgumentException("can not get null element");
+
+        Node cur = root;
+        int pos = 0;
+        while (pos < item.length()) {
+            int i = cur.find(item.charAt(pos));
+            if (i < 0)
+                return -1;
+            cur = cur.children[i];
+            if (commonPrefix(cur.label, item, pos) < cur.label.length)
+                return -1;
+            pos += cur.label.length;
+        }
+
+        return cur.count == 0 ? -1 : cur.count;
+    }
+
+    /**
+     * Returns all words starting with the given prefix, together with their
+     * counts, in sorted order. The time needed is proportional to the length
+     * of the prefix plus the size of the subtree holding the matches.
+     *
+     * @param prefix The prefix of the words to be returned.
+     * @return The list of matching words.
+     * @throws IllegalArgumentException if the provided prefix is null.
+     */
+    public List<Word> prefixScan(String prefix) throws IllegalArgumentException {
+        if (prefix == null)
+            throw new IllegalArgumentException("prefix cannot be null");
+
+        List<Word> matches = new ArrayList<>();
+        StringBuilder path = new StringBuilder(prefix.length() + 16);
+        Node cur = root;
+        int pos = 0;
+        while (pos < prefix.length()) {
+            int i = cur.find(prefix.charAt(pos));
+            if (i < 0)
+                return matches;
+            cur = cur.children[i];
+            int common = commonPrefix(cur.label, prefix, pos);
+            if (pos + common < prefix.length() && common < cur.label.length)
+                return matches;
+            path.append(cur.label);
+            pos += cur.label.length;
+        }
+
+        collect(cur, path, matches);
+        return matches;
+    }
+
+    /**
+     * Adds the words of the subtree rooted at the node to the list, in sorted
+     * order.
+     *
+     * @param cur     The root of the subtree.
+     * @param path    The characters on the path from the root to cur.
+     * @param matches The list to add the words to.
+     */
+    private void collect(Node cur, StringBuilder path, List<Word> matches) {
+        if (cur.count != 0)
+            matches.add(new Word(path.toString(), cur.count));
+        int length = path.length();
+        for (int i = 0; i < cur.childCount; i++) {
+            path.append(cur.children[i].label);
+            collect(cur.children[i], path, matches);
+            path.setLength(length);
+        }
+    }
+
+    /**
+     * Returns the size of the RadixTrieIndex.
+     *
+     * @return the number of unique words in the RadixTrieIndex.
+     */
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Returns the length of the common prefix of the label and the characters
+     * of the word starting at the given position.
+     *
+     * @param label The label of a node.
+     * @param item  The word.
+     * @param pos   The position in the word to start at.
+     * @return The number of matching characters.
+     */
+    private static int commonPrefix(char[] label, String item, int pos) {
+        int max = Math.min(label.length, item.length() - pos);
+        int i = 0;
+        while (i < max && label[i] == item.charAt(pos + i)) {
+            i++;
+        }
+        return i;
+    }
+
+    /**
+     * Returns a copy of a range of the array.
+     *
+     * @param a    The array.
+     * @param from The first position (inclusive).
+     * @param to   The last position (exclusive).
+     * @return The copied range.
+     */
+    private static char[] slice(char[] a, int from, int to) {
+        char[] copy = new char[to - from];
+        System.arraycopy(a, from, copy, 0, to - from);
+        return copy;
+    }
+
+    /**
+     * Compares the specified object with this RadixTrieIndex for equality.
+     * Two Index objects are considered equal if they contain the same number of
+     * words, and those words are pairwise equal.
+     *
+     * @param o the object to be compared for equality with this RadixTrieIndex.
+     * @return true if the specified object is equal to this RadixTrieIndex.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (o == null)
+            return false;
+
+        if (o == this)
+            return true;
+
+        if (!(o instanceof Index))
+            return false;
+
+        Index obj = (Index) o;
+
+        if (this.size() != obj.size())
+            return false;
+
+        // using two iterators to iterate through two indexes and checks the equality
+        // for every data value
+        Iterator<Word> it1 = this.iterator();
+        Iterator<Word> it2 = obj.iterator();
+
+        while (it1.hasNext() && it2.hasNext()) {
+            Word data1 = it1.next();
+            Word data2 = it2.next();
+
+            if (!data1.equals(data2))
+                return false;
+
+        }
+
+        return !it1.hasNext() && !it2.hasNext();
+
+    }
+
+    /**
+     * Returns a hash code for this RadixTrieIndex, consistent with equals().
+     *
+     * @return the hash code of this RadixTrieIndex.
+     */
+    @Override
+    public int hashCode() {
+        return Index.hashCodeOf(this);
+    }
+
+    /**
+     * Returns the string representation of this RadixTrieIndex.
+     * The string representation consists of a list of all Word objects in sorted
+     * order, enclosed in square brackets ("[]"). Adjacent elements are separated
+     * by ", " (comma and space).
+     *
+     * @return the string representation of the RadixTrieIndex.
+     */
+    public String toString() {
+        if (size() == 0) {
+            return "[]";
+        }
+
+        StringBuilder str = new StringBuilder("[");
+        Iterator<Word> it = iterator();
+
+        if (it.hasNext()) {
+            str.append(it.next());
+        }
+
+        while (it.hasNext()) {
+            str.append(", ").append(it.next());
+        }
+
+        return str.append("]").toString();
+    }
+
+    /**
+     * Represents a node of the trie. The label holds the characters on the edge
+     * from the parent to this node, and count is the number of occurrences of
+     * the word ending at this node, or 0 if no word ends here.
+     */
+    private static class Node {
+
+        char[] label;
+        int count = 0;
+        Node[] children = NO_CHILDREN;
+        int childCount = 0;
+
+        /**
+         * Constructs a Node with the given label and no children.
+         *
+         * @param label The characters on the edge leading to this node.
+         */
+        Node(char[] label) {
+            this.label = label;
+        }
+
+        /**
+         * Finds the child whose label starts with the given character.
+         *
+         * @param c The first character of the label.
+         * @return The position of the child, or (-(insertion point) - 1) if
+         *         there is no such child.
+         */
+        int find(char c) {
+            int low = 0;
+            int high = childCount - 1;
+            while (low <= high) {
+                int mid = (low + high) >>> 1;
+                char first = children[mid].label[0];
+                if (first < c)
+                    low = mid + 1;
+                else if (first > c)
+                    high = mid - 1;
+                else
+                    return mid;
+            }
+            return -(low + 1);
+        }
+
+        /**
+         * Inserts a child at the given position.
+         *
+         * @param i     The position of the new child.
+         * @param child The new child.
+         */
+        void insertChild(int i, Node child) {
+            if (childCount == children.length) {
+                Node[] larger = new Node[Math.max(2, childCount * 2)];
+                System.arraycopy(children, 0, larger, 0, childCount);
+                children = larger;
+            }
+            System.arraycopy(children, i, children, i + 1, childCount - i);
+            children[i] = child;
+            childCount++;
+        }
+
+        /**
+         * Removes the child at the given position.
+         *
+         * @param i The position of the child.
+         */
+        void removeChild(int i) {
+            System.arraycopy(children, i + 1, children, i, childCount - i - 1);
+            children[--childCount] = null;
+        }
+    }
+
+    /**
+     * Represents a node on the stack of the iterator, with the length of the
+     * path up to and including the node's label and the next child to visit.
+     */
+    private static class Frame {
+        final Node node;
+        final int pathLength;
+        int nextChild;
+        boolean visited;
+
+        /**
+         * Constructs a frame.
+         *
+         * @param node       The node.
+         * @param pathLength The length of the path ending at the node.
+         * @param nextChild  The position of the next child to visit.
+         * @param visited    true if the word of the node must not be returned.
+         */
+        Frame(Node node, int pathLength, int nextChild, boolean visited) {
+            this.node = node;
+            this.pathLength = pathLength;
+            this.nextChild = nextChild;
+            this.visited = visited;
+        }
+    }
+
+    /**
+     * Implements the Iterator interface, traversing the trie depth-first with
+     * an explicit stack and building each word from the labels on its path.
+     * Removing a word may merge nodes, so remove() re-seeks the stack to the
+     * first word greater than the removed one.
+     */
+    private class TrieIterator implements Iterator<Word> {
+
+        private final Deque<Frame> stack = new ArrayDeque<>();
+        private final StringBuilder path = new StringBuilder();
+        private Word nextToReturn = null;
+        private Word lastReturned = null;
+        private int expectedModCount = modCount;
+
+        /**
+         * Constructs an iterator positioned at the smallest word.
+         */
+        TrieIterator() {
+            stack.push(new Frame(root, 0, 0, false));
+            advance();
+        }
+
+        /**
+         * Finds the next word in the traversal and stores it in nextToReturn.
+         */
+        private void advance() {
+            nextToReturn = null;
+            while (!stack.isEmpty()) {
+                Frame top = stack.peek();
+                if (!top.visited) {
+                    top.visited = true;
+                    if (top.node.count != 0) {
+                        path.setLength(top.pathLength);
+                        nextToReturn = new Word(path.toString(), top.node.count);
+                        return;
+                    }
+                } else if (top.nextChild < top.node.childCount) {
+                    Node child = top.node.children[top.nextChild++];
+                    path.setLength(top.pathLength);
+                    path.append(child.label);
+                    stack.push(new Frame(child, path.length(), 0, false));
+                } else {
+                    stack.pop();
+                }
+            }
+        }
+
+        /**
+         * Rebuilds the stack so that the traversal continues with the first word
+         * greater than the given one.
+         *
+         * @param key The word after which the traversal continues.
+         */
+        private void seekAfter(String key) {
+            stack.clear();
+            path.setLength(0);
+            Node cur = root;
+            int pos = 0;
+            while (true) {
+                if (pos == key.length()) {
+                    // every word below cur is greater than the key
+                    stack.push(new Frame(cur, pos, 0, true));
+                    return;
+                }
+                int i = cur.find(key.charAt(pos));
+                if (i < 0) {
+                    stack.push(new Frame(cur, pos, -i - 1, true));
+                    return;
+                }
+                stack.push(new Frame(cur, pos, i + 1, true));
+                Node child = cur.children[i];
+                int common = commonPrefix(child.label, key, pos);
+                path.append(child.label);
+                if (common == child.label.length) {
+                    cur = child;
+                    pos += common;
+                } else {
+                    if (pos + common == key.length() || child.label[common] > key.charAt(pos + common)) {
+                        // the whole subtree of the child is greater than the key
+                        stack.push(new Frame(child, path.length(), 0, false));
+                    }
+                    return;
+                }
+            }
+        }
+
+        /**
+         * Checks if there are more elements in the iteration.
+         *
+         * @return true if the iteration has more elements.
+         */
+        @Override
+        public boolean hasNext() {
+            return nextToReturn != null;
+        }
+
+        /**
+         * Returns the next element in the iteration.
+         *
+         * @return The next Word object in the iteration.
+         * @throws NoSuchElementException          if the iteration has no more
+         *                                         elements.
+         * @throws ConcurrentModificationException if the trie was structurally
+         *                                         modified outside this iterator.
+         */
+        @Override
+        public Word next() throws NoSuchElementException {
+            if (expectedModCount != modCount)
+                throw new ConcurrentModificationException("index modified during iteration");
+            if (nextToReturn == null)
+                throw new NoSuchElementException("end of the trie!");
+
+            lastReturned = nextToReturn;
+            advance();
+            return lastReturned;
+        }
+
+        /**
+         * Removes the last element returned by this iterator from the trie.
+         *
+         * @throws IllegalStateException if the next method has not yet been called,
+         *                               or the remove method has already been called
+         *                               after the last call to next.
+         */
+        @Override
+        public void remove() throws IllegalStateException {
+            if (lastReturned == null)
+                throw new IllegalStateException("next() must be called before remove method");
+            if (expectedModCount != modCount)
+                throw new ConcurrentModificationException("index modified during iteration");
+
+            String removed = lastReturned.getWord();
+            RadixTrieIndex.this.remove(removed);
+            expectedModCount = modCount;
+            lastReturned = null;
+
+            seekAfter(removed);
+            advance();
+        }
+    }
+}
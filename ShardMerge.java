@@ -0,0 +1,223 @@
+package project5;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.PriorityQueue;
+
+/**
+ * ShardMerge combines the per-shard indexes of a corpus that was counted in
+ * pieces, for example on several machines, into global word counts.
+ * Since every index iterates its words in sorted order, the shards are merged
+ * with a k-way merge: a heap holds the next word of every shard, and the
+ * counts of equal words are added together. The merge streams, so snapshot
+ * files can be merged into a new snapshot without building any index in
+ * memory.
+ *
+ * Usage: java ShardMerge outputSnapshot shardSnapshot...
+ * or java ShardMerge --local outputSnapshot inputFile...
+ * The --local mode stands in for a cluster: every input file is counted by a
+ * separate JVM process that writes a shard snapshot, and the shards are then
+ * merged.
+ *
+ * @author Olivia Yu
+ * @version October 17, 2026
+ */
+public class ShardMerge implements Iterable<Word> {
+
+    private final List<? extends Index> shards;
+
+    /**
+     * Constructs a merged view of the given shards. The shards are not copied
+     * and must not be modified while the view is iterated.
+     *
+     * @param shards the indexes to be merged
+     * @throws IllegalArgumentException if shards or any of the shards is null
+     */
+    public ShardMerge(List<? extends Index> shards) throws IllegalArgumentException {
+        if (shards == null || shards.contains(null))
+            throw new IllegalArgumentException("can not merge null index");
+        this.shards = shards;
+    }
+
+    /**
+     * Returns an iterator over the words of all shards in sorted order. Every
+     * word is returned once, with the sum of its counts in all shards.
+     *
+     * @return an Iterator over the merged words
+     */
+    @Override
+    public Iterator<Word> iterator() {
+        return new MergeIterator();
+    }
+
+    /**
+     * Merges snapshot files into a new snapshot file. The output file may be
+     * one of the shard files: IndexSnapshot.write replaces it only after the
+     * merged snapshot is complete, and the mapped shard keeps its old
+     * contents until then.
+     *
+     * @param shardFiles names of the snapshot files to be merged
+     * @param outputFile name of the snapshot file to be written
+     * @return the number of distinct words written
+     * @throws IOException if a file cannot be read or written
+     */
+    public static int mergeSnapshots(List<String> shardFiles, String outputFile) throws IOException {
+        List<SnapshotIndex> shards = new ArrayList<>();
+        for (String f : shardFiles)
+            shards.add(IndexSnapshot.open(f));
+        return IndexSnapshot.write(new ShardMerge(shards), outputFile);
+    }
+
+    /**
+     * Counts every input file in a separate JVM process, each writing a shard
+     * snapshot, and merges the shard snapshots into the output snapshot.
+     *
+     * @param inputFiles names of the text files to be counted
+     * @param outputFile name of the snapshot file to be written
+     * @return the number of distinct words written
+     * @throws IOException if a process fails or a file cannot be written
+     */
+    public static int countLocally(List<String> inputFiles, String outputFile) throws IOException {
+        String java = System.getProperty("java.home") + File.separator + "bin" + File.separator
+                + "java";
+        List<String> shardFiles = new ArrayList<>();
+        List<Process> workers = new ArrayList<>();
+        try {
+            for (int i = 0; i < inputFiles.size(); i++) {
+                String shard = outputFile + ".shard" + i;
+                shardFiles.add(shard);
+                workers.add(new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                        IndexSnapshot.class.getName(), "build", inputFiles.get(i), shard)
+                        .inheritIO().start());
+            }
+            for (int i = 0; i < workers.size(); i++) {
+                if (workers.get(i).waitFor() != 0)
+                    throw new IOException("counting " + inputFiles.get(i) + " failed");
+            }
+            return mergeSnapshots(shardFiles, outputFile);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("interrupted while counting shards", e);
+        } finally {
+            for (Process p : workers)
+                p.destroy();
+            for (String shard : shardFiles)
+                new File(shard).delete();
+        }
+    }
+
+    /**
+     * Merges shard snapshots, or counts text files in separate processes and
+     * merges the results, and reports how long it took.
+     *
+     * @param args "outputSnapshot shardSnapshot..." or
+     *             "--local outputSnapshot inputFile..."
+     * @throws IOException if a file cannot be read or written
+     */
+    public static void main(String[] args) throws IOException {
+        boolean local = args.length > 0 && args[0].equals("--local");
+        int first = local ? 1 : 0;
+        if (args.length < first + 2) {
+            System.err.println("Usage: java ShardMerge outputSnapshot shardSnapshot...");
+            System.err.println("       java ShardMerge --local outputSnapshot inputFile...");
+            System.exit(1);
+        }
+
+        String outputFile = args[first];
+        List<String> inputs = new ArrayList<>();
+        for (int i = first + 1; i < args.length; i++)
+            inputs.add(args[i]);
+
+        long start = System.nanoTime();
+        int words = local ? countLocally(inputs, outputFile) : mergeSnapshots(inputs, outputFile);
+        long elapsed = System.nanoTime() - start;
+        System.out.printf("INFO: %d shards merged, %d words saved in snapshot.%n", inputs.size(), words);
+        System.out.printf("INFO: Merging took %d ns (~%.3f seconds).%n", elapsed, elapsed / 1e9);
+    }
+
+    /**
+     * The next word of one shard, ordered by the word.
+     */
+    private static class Head implements Comparable<Head> {
+        final Iterator<Word> it;
+        Word word;
+
+        /**
+         * Constructs the head of a shard positioned at its first word.
+         *
+         * @param it iterator over the words of the shard, which has a next word
+         */
+        Head(Iterator<Word> it) {
+            this.it = it;
+            this.word = it.next();
+        }
+
+        /**
+         * Compares the current words of two shards.
+         *
+         * @param o the other head
+         * @return the result of comparing the current words
+         */
+        @Override
+        public int compareTo(Head o) {
+            return word.compareTo(o.word);
+        }
+    }
+
+    /**
+     * Implements the Iterator interface by repeatedly taking the smallest
+     * current word from a heap of shard heads.
+     */
+    private class MergeIterator implements Iterator<Word> {
+        private final PriorityQueue<Head> heap = new PriorityQueue<>(Math.max(1, shards.size()));
+
+        /**
+         * Constructs an iterator positioned before the smallest word.
+         */
+        MergeIterator() {
+            for (Index shard : shards) {
+                Iterator<Word> it = shard.iterator();
+                if (it.hasNext())
+                    heap.add(new Head(it));
+            }
+        }
+
+        /**
+         * Checks if there are more elements in the iteration.
+         *
+         * @return true if the iteration has more elements.
+         */
+        @Override
+        public boolean hasNext() {
+            return !heap.isEmpty();
+        }
+
+        /**
+         * Returns the next word with the sum of its counts in all shards.
+         *
+         * @return the next Word in the iteration.
+         * @throws NoSuchElementException if the iteration has no more elements.
+         */
+        @Override
+        public Word next() throws NoSuchElementException {
+            if (!hasNext())
+                throw new NoSuchElementException("the end of the shards reached");
+
+            String word = heap.peek().word.getWord();
+            int count = 0;
+            while (!heap.isEmpty() && heap.peek().word.getWord().equals(word)) {
+                Head h = heap.poll();
+                count += h.word.getCount();
+                if (h.it.hasNext()) {
+                    h.word = h.it.next();
+                    heap.add(h);
+                }
+            }
+            return new Word(word, count);
+        }
+    }
+}
@@ -0,0 +1,374 @@
+package project5;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Represents a read-only index backed by a memory-mapped snapshot file
+ * written by IndexSnapshot. No tree or table is built when the snapshot is
+ * opened: get() binary searches the first words of the blocks and decodes a
+ * single block, and the iterator decodes the words one after another.
+ * Word objects are created on demand. The index cannot be modified, so add,
+ * remove and Iterator.remove throw UnsupportedOperationException.
+ *
+ * @author Olivia Yu
+ * @version October 17, 2026
+ */
+public class SnapshotIndex implements Index {
+
+    private final ByteBuffer buffer;
+    private final int wordCount;
+    private final int blockSize;
+    private final int blockCount;
+    private final int indexPosition;
+
+    /**
+     * Constructs an index over the given snapshot contents.
+     *
+     * @param buffer the contents of a snapshot file, with a valid header and
+     *               trailer
+     */
+    SnapshotIndex(ByteBuffer buffer) {
+        this.buffer = buffer;
+        int trailer = buffer.capacity() - IndexSnapshot.TRAILER_SIZE;
+        this.wordCount = buffer.getInt(trailer);
+        this.blockSize = buffer.getInt(trailer + 4);
+        this.blockCount = buffer.getInt(trailer + 8);
+        this.indexPosition = (int) buffer.getLong(trailer + 12);
+    }
+
+    /**
+     * Returns an iterator over the words of the snapshot in sorted order.
+     *
+     * @return an Iterator for the SnapshotIndex.
+     */
+    @Override
+    public Iterator<Word> iterator() {
+        return new SnapshotIterator();
+    }
+
+    /**
+     * Always throws, since a snapshot cannot be modified.
+     *
+     * @param item the word to be added.
+     * @throws UnsupportedOperationException always.
+     */
+    @Override
+    public void add(String item) throws UnsupportedOperationException {
+        throw new UnsupportedOperationException("snapshot index is read-only");
+    }
+
+    /**
+     * Always throws, since a snapshot cannot be modified.
+     *
+     * @param item  the word to be added.
+     * @param count the number of occurrences to be added.
+     * @throws UnsupportedOperationException always.
+     */
+    @Override
+    public void add(String item, int count) throws UnsupportedOperationException {
+        throw new UnsupportedOperationException("snapshot index is read-only");
+    }
+
+    /**
+     * Always throws, since a snapshot cannot be modified. Use
+     * ShardMerge to merge snapshot files into a new snapshot.
+     *
+     * @param other the index whose counts should be added.
+     * @throws UnsupportedOperationException always.
+     */
+    @Override
+    public void merge(Index other) throws UnsupportedOperationException {
+        throw new UnsupportedOperationException("snapshot index is read-only");
+    }
+
+    /**
+     * Always throws, since a snapshot cannot be modified.
+     *
+     * @param item the word to be removed.
+     * @throws UnsupportedOperationException always.
+     */
+    @Override
+    public void remove(String item) throws UnsupportedOperationException {
+        throw new UnsupportedOperationException("snapshot index is read-only");
+    }
+
+    /**
+     * Retrieves the count of the specified word.
+     *
+     * @param item the word whose count is to be returned.
+     * @return the count of the word, or -1 if the word is not in the snapshot.
+     * @throws IllegalArgumentException if the item is null.
+     */
+    @Override
+    public int get(String item) throws IllegalArgumentException {
+        if (item == null)
+            throw new IllegalArgumentException("can not get null element");
+
+        // find the last block whose first word is not greater than the item
+        int low = 0;
+        int high = blockCount - 1;
+        int block = -1;
+        Cursor cursor = new Cursor();
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            cursor.seek(mid);
+            cursor.next();
+            int compare = cursor.word().compareTo(item);
+            if (compare == 0)
+                return cursor.count;
+            if (compare < 0) {
+                block = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        if (block < 0)
+            return -1;
+
+        cursor.seek(block);
+        for (int i = 0; i < blockSize && cursor.hasNext(); i++) {
+            cursor.next();
+            int compare = cursor.word().compareTo(item);
+            if (compare == 0)
+                return cursor.count;
+            if (compare > 0)
+                break;
+        }
+        return -1;
+    }
+
+    /**
+     * Returns the number of unique words in the snapshot.
+     *
+     * @return the size of the index.
+     */
+    @Override
+    public int size() {
+        return wordCount;
+    }
+
+    /**
+     * Compares the specified object with this index for equality.
+     * Returns true if the given object is also an instance of Index, the two
+     * indexes have the same size, and all corresponding pairs of elements are
+     * equal.
+     *
+     * @param o the object to be compared for equality with this index.
+     * @return true if the specified object is equal to this index.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (o == null)
+            return false;
+
+        if (o == this)
+            return true;
+
+        if (!(o instanceof Index))
+            return false;
+
+        Index obj = (Index) o;
+
+        if (this.size() != obj.size())
+            return false;
+
+        // using two iterators to iterate through two indexes and checks the equality
+        // for each data value
+        Iterator<Word> it1 = this.iterator();
+        Iterator<Word> it2 = obj.iterator();
+
+        while (it1.hasNext() && it2.hasNext()) {
+            Word data1 = it1.next();
+            Word data2 = it2.next();
+
+            if (!data1.equals(data2))
+                return false;
+
+        }
+
+        return !it1.hasNext() && !it2.hasNext();
+
+    }
+
+    /**
+     * Returns a hash code for this index, consistent with equals().
+     *
+     * @return the hash code of this index.
+     */
+    @Override
+    public int hashCode() {
+        return Index.hashCodeOf(this);
+    }
+
+    /**
+     * Returns the string representation of this index.
+     * The string representation consists of a list of the index's elements in
+     * sorted order enclosed in square brackets ("[]").
+     * Adjacent elements are separated by the characters ", " (comma and space).
+     *
+     * @return the string representation of this index.
+     */
+    public String toString() {
+        if (size() == 0) {
+            return "[]";
+        }
+
+        StringBuilder str = new StringBuilder("[");
+        Iterator<Word> it = iterator();
+
+        if (it.hasNext()) {
+            str.append(it.next());
+        }
+
+        while (it.hasNext()) {
+            str.append(", ").append(it.next());
+        }
+
+        return str.append("]").toString();
+    }
+
+    /**
+     * Decodes the front-coded entries of the snapshot one after another,
+     * keeping the characters of the current word in a reused buffer.
+     */
+    private class Cursor {
+        private int position;
+        private int decoded;
+        private char[] chars = new char[32];
+        private int length = 0;
+        int count;
+
+        /**
+         * Positions the cursor before the first word of the given block.
+         *
+         * @param block the number of the block.
+         */
+        void seek(int block) {
+            position = buffer.getInt(indexPosition + 4 * block);
+            decoded = block * blockSize;
+            length = 0;
+        }
+
+        /**
+         * Checks if there are more words after the cursor.
+         *
+         * @return true if there are more words.
+         */
+        boolean hasNext() {
+            return decoded < wordCount;
+        }
+
+        /**
+         * Decodes the next word and its count.
+         */
+        void next() {
+            int shared = readVarint();
+            int suffixLength = readVarint();
+            String suffix = decodeSuffix(suffixLength);
+            int newLength = shared + suffix.length();
+            if (newLength > chars.length) {
+                char[] larger = new char[Math.max(newLength, chars.length * 2)];
+                System.arraycopy(chars, 0, larger, 0, shared);
+                chars = larger;
+            }
+            suffix.getChars(0, suffix.length(), chars, shared);
+            length = newLength;
+            count = readVarint();
+            decoded++;
+        }
+
+        /**
+         * Returns the current word.
+         *
+         * @return the current word.
+         */
+        String word() {
+            return new String(chars, 0, length);
+        }
+
+        /**
+         * Decodes the UTF-8 suffix of the current entry.
+         *
+         * @param byteLength the number of bytes of the suffix.
+         * @return the suffix.
+         */
+        private String decodeSuffix(int byteLength) {
+            byte[] bytes = new byte[byteLength];
+            for (int i = 0; i < byteLength; i++) {
+                bytes[i] = buffer.get(position + i);
+            }
+            position += byteLength;
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        /**
+         * Reads a number written with 7 bits per byte.
+         *
+         * @return the number.
+         */
+        private int readVarint() {
+            int value = 0;
+            int shift = 0;
+            byte b;
+            do {
+                b = buffer.get(position++);
+                value |= (b & 0x7F) << shift;
+                shift += 7;
+            } while (b < 0);
+            return value;
+        }
+    }
+
+    /**
+     * Implements the Iterator interface by decoding the snapshot sequentially.
+     */
+    private class SnapshotIterator implements Iterator<Word> {
+        private final Cursor cursor = new Cursor();
+
+        /**
+         * Constructs an iterator positioned before the first word.
+         */
+        SnapshotIterator() {
+            if (blockCount > 0)
+                cursor.seek(0);
+        }
+
+        /**
+         * Checks if there are more elements in the iteration.
+         *
+         * @return true if the iteration has more elements.
+         */
+        @Override
+        public boolean hasNext() {
+            return cursor.hasNext();
+        }
+
+        /**
+         * Returns the next element in the iteration.
+         *
+         * @return the next Word in the iteration.
+         * @throws NoSuchElementException if the iteration has no more elements.
+         */
+        @Override
+        public Word next() throws NoSuchElementException {
+            if (!hasNext())
+                throw new NoSuchElementException("the end of the snapshot reached");
+            cursor.next();
+            return new Word(cursor.word(), cursor.count);
+        }
+
+        /**
+         * Always throws, since a snapshot cannot be modified.
+         *
+         * @throws UnsupportedOperationException always.
+         */
+        @Override
+        public void remove() throws UnsupportedOperationException {
+            throw new UnsupportedOperationException("snapshot index is read-only");
+        }
+    }
+}
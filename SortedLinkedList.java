@@ -1,23 +1,38 @@
 package project5;
 
+import java.util.Arrays;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.IntPredicate;
 
 /**
  * Represents a sorted linked list that stores Word objects.
  * The list is sorted based on the natural ordering of the Word objects.
  * This class implements the Index interface and provides an iterator for
  * traversing the list and removing the specified Word object.
+ * The doubly linked chain of nodes is the bottom level of a skip list: about
+ * one node in four also has a link to a later node on level 1, one in sixteen
+ * on level 2, and so on. Searches descend from the highest level, so add, get
+ * and remove take expected O(log n) steps instead of walking from the head.
  * 
  * @author Olivia Yu
  * @version December 4, 2023
  */
 public class SortedLinkedList implements Index {
 
+    private static final int MAX_LEVEL = 16;
+
     private Node head;
     private Node tail;
     private int size;
 
+    /** First node of every level above the bottom one, or null. */
+    private final Node[] heads = new Node[MAX_LEVEL];
+
+    /** Last node before the searched word on every level, filled by seek. */
+    private final Node[] update = new Node[MAX_LEVEL];
+
     /**
      * Constructs a new empty sorted linked list.
      */
@@ -47,41 +62,49 @@ public class SortedLinkedList implements Index {
      */
     @Override
     public void add(String item) throws IllegalArgumentException {
+        add(item, 1);
+    }
+
+    /**
+     * Adds count occurrences of an element to the sorted linked list.
+     * If the element already exists, its count is increased by count.
+     *
+     * @param item  the word to be added.
+     * @param count the number of occurrences to be added.
+     * @throws IllegalArgumentException if the item is null or the count is not
+     *                                  positive.
+     */
+    @Override
+    public void add(String item, int count) throws IllegalArgumentException {
         if (item == null)
             throw new IllegalArgumentException("can not add null element");
+        if (count <= 0)
+            throw new IllegalArgumentException("count must be positive");
 
-        Word word = new Word(item);
-        Node n = new Node(word);
-        if (this.size() == 0) {
-            head = n;
-            tail = n;
-            size++;
+        Node cur = seek(item);
+
+        // when Word object already exist, count is increased
+        if (cur != null && cur.word.getWord().equals(item)) {
+            cur.word.addCount(count);
             return;
         }
-        Node cur = head;
-        while (cur != null && cur.word.getWord().compareTo(item) < 0) {
-            cur = cur.next;
-        }
+
+        Node n = new Node(new Word(item, count), randomLevel());
         // tail
         if (cur == null) {
-            tail.next = n;
             n.prev = tail;
+            if (tail == null)
+                head = n;
+            else
+                tail.next = n;
             tail = n;
-            size++;
-        }
-
-        // when Word object already exist, count is increased
-        else if (cur.word.getWord().equals(item)) {
-            cur.word.incrementCount();
-            return;
         }
 
         // head
-        else if (cur.word.getWord().compareTo(item) > 0 && cur == head) {
+        else if (cur == head) {
             n.next = head;
             head.prev = n;
             head = n;
-            size++;
         }
 
         else {
@@ -89,8 +112,13 @@ public class SortedLinkedList implements Index {
             cur.prev.next = n;
             cur.prev = n;
             n.next = cur;
-            size++;
         }
+
+        for (int level = 1; level < n.level(); level++) {
+            n.skip[level - 1] = forward(update[level], level);
+            link(update[level], level, n);
+        }
+        size++;
     }
 
     /**
@@ -107,44 +135,222 @@ public class SortedLinkedList implements Index {
         if (size() == 0)
             return;
 
-        Node cur = head;
-        while (cur != null) {
-            if (cur.word.getWord().equals(item)) {
+        Node cur = seek(item);
+        if (cur == null || !cur.word.getWord().equals(item))
+            return;
 
-                if (size() == 1) {
-                    head = null;
-                    tail = null;
+        if (size() == 1) {
+            head = null;
+            tail = null;
 
-                }
+        }
 
-                else if (cur == head) {
-                    head = cur.next;
-                    head.prev = null;
+        else if (cur == head) {
+            head = cur.next;
+            head.prev = null;
 
+        }
+
+        else if (cur == tail) {
+            tail = cur.prev;
+            tail.next = null;
+
+        }
+
+        else {
+            cur.prev.next = cur.next;
+            cur.next.prev = cur.prev;
+
+        }
+
+        for (int level = 1; level < cur.level(); level++) {
+            if (forward(update[level], level) == cur)
+                link(update[level], level, cur.skip[level - 1]);
+        }
+        size--;
+    }
+
+    /**
+     * Finds the first node whose word is not less than the item, descending
+     * from the highest level of the skip list. On return, update[level] holds
+     * the last node of each level before that position, or null if there is
+     * none.
+     *
+     * @param item the word to be searched for.
+     * @return the first node not less than item, or null if there is none.
+     */
+    private Node seek(String item) {
+        Node pred = null;
+        for (int level = MAX_LEVEL - 1; level >= 1; level--) {
+            Node n = forward(pred, level);
+            while (n != null && n.word.getWord().compareTo(item) < 0) {
+                pred = n;
+                n = n.skip[level - 1];
+            }
+            update[level] = pred;
+        }
+
+        Node n = pred == null ? head : pred.next;
+        while (n != null && n.word.getWord().compareTo(item) < 0)
+            n = n.next;
+        return n;
+    }
+
+    /**
+     * Returns the node following a node on a level of the skip list.
+     *
+     * @param n     the node, or null for the start of the level.
+     * @param level the level.
+     * @return the following node on that level, or null.
+     */
+    private Node forward(Node n, int level) {
+        if (level == 0)
+            return n == null ? head : n.next;
+        return n == null ? heads[level] : n.skip[level - 1];
+    }
+
+    /**
+     * Sets the node following a node on a level above the bottom one.
+     *
+     * @param n     the node, or null for the start of the level.
+     * @param level the level, at least 1.
+     * @param to    the new following node, or null.
+     */
+    private void link(Node n, int level, Node to) {
+        if (n == null)
+            heads[level] = to;
+        else
+            n.skip[level - 1] = to;
+    }
+
+    /**
+     * Chooses the number of levels of a new node: each additional level with
+     * probability 1/4.
+     *
+     * @return the number of levels, between 1 and MAX_LEVEL.
+     */
+    private static int randomLevel() {
+        int level = 1;
+        int bits = ThreadLocalRandom.current().nextInt();
+        while (level < MAX_LEVEL && (bits & 3) == 0) {
+            level++;
+            bits >>>= 2;
+        }
+        return level;
+    }
+
+    /**
+     * Removes every element whose count satisfies the given predicate. The
+     * matching nodes are spliced out during a single pass over the list, and
+     * every level of the skip list is relinked to the remaining nodes in the
+     * same pass.
+     *
+     * @param onCount predicate applied to the count of each word.
+     * @return the number of elements removed.
+     * @throws IllegalArgumentException if onCount is null.
+     */
+    @Override
+    public int removeIf(IntPredicate onCount) throws IllegalArgumentException {
+        if (onCount == null)
+            throw new IllegalArgumentException("predicate cannot be null");
+
+        // last remaining node of every level so far
+        Node[] last = update;
+        Arrays.fill(last, null);
+        int removed = 0;
+        Node cur = head;
+        while (cur != null) {
+            Node next = cur.next;
+            if (!onCount.test(cur.word.getCount())) {
+                for (int level = 1; level < cur.level(); level++) {
+                    link(last[level], level, cur);
+                    last[level] = cur;
                 }
+            } else {
+                if (cur.prev == null)
+                    head = next;
+                else
+                    cur.prev.next = next;
 
-                else if (cur == tail) {
+                if (next == null)
                     tail = cur.prev;
-                    tail.next = null;
+                else
+                    next.prev = cur.prev;
 
-                }
+                removed++;
+            }
+            cur = next;
+        }
+        for (int level = 1; level < MAX_LEVEL; level++)
+            link(last[level], level, null);
+        size -= removed;
+        return removed;
+    }
 
-                else {
-                    cur.prev.next = cur.next;
-                    cur.next.prev = cur.prev;
+    /**
+     * Adds the counts of all elements of another index to this list. Since
+     * both indexes iterate in sorted order, a single pass over the list is
+     * enough: new elements are spliced in before the first larger node and
+     * the counts of existing elements are increased in place. The last node
+     * passed on every level of the skip list is remembered, so new nodes are
+     * linked into the upper levels during the same pass.
+     *
+     * @param other the index whose counts should be added.
+     * @throws IllegalArgumentException if other is null.
+     */
+    @Override
+    public void merge(Index other) throws IllegalArgumentException {
+        if (other == null)
+            throw new IllegalArgumentException("can not merge null index");
 
-                }
-                size--;
-                break;
+        // last node before cur on every level
+        Node[] last = update;
+        Arrays.fill(last, null);
+        Node cur = head;
+        for (Word w : other) {
+            while (cur != null && cur.word.compareTo(w) < 0) {
+                for (int level = 1; level < cur.level(); level++)
+                    last[level] = cur;
+                cur = cur.next;
             }
 
-            cur = cur.next;
+            if (cur != null && cur.word.compareTo(w) == 0) {
+                cur.word.addCount(w.getCount());
+                continue;
+            }
 
+            Node n = new Node(new Word(w.getWord(), w.getCount()), randomLevel());
+            if (cur == null) {
+                // append after the tail
+                n.prev = tail;
+                if (tail == null)
+                    head = n;
+                else
+                    tail.next = n;
+                tail = n;
+            } else {
+                // insert before cur
+                n.prev = cur.prev;
+                n.next = cur;
+                if (cur.prev == null)
+                    head = n;
+                else
+                    cur.prev.next = n;
+                cur.prev = n;
+            }
+            for (int level = 1; level < n.level(); level++) {
+                n.skip[level - 1] = forward(last[level], level);
+                link(last[level], level, n);
+                last[level] = n;
+            }
+            size++;
         }
     }
 
     /**
      * Retrieves the count of the specified word in the list.
+     * The search descends the levels of the skip list to the first word not
+     * less than the item.
      *
      * @param item the word whose count is to be returned.
      * @return the count of the word, or -1 if the word is not in the list.
@@ -155,15 +361,80 @@ public class SortedLinkedList implements Index {
         if (item == null)
             throw new IllegalArgumentException("can not get null element");
 
+        Node cur = seek(item);
+        if (cur != null && cur.word.getWord().equals(item)) {
+            return cur.word.getCount();
+        }
+        return -1;
+    }
+
+    /**
+     * Retrieves the counts of many words. When there are at least as many
+     * items as words in the list, the positions of the items are sorted by
+     * word, and the sorted items are then matched against the sorted list like
+     * the two halves of a merge, in O(q log q + n) time for q items. Fewer
+     * items are looked up one by one through the skip list.
+     *
+     * @param items the words whose counts are to be returned.
+     * @return array whose i-th element is the count of items[i], or -1 if that
+     *         word is not in the list.
+     * @throws IllegalArgumentException if items or any of its elements is null.
+     */
+    @Override
+    public int[] getAll(String[] items) throws IllegalArgumentException {
+        if (items == null)
+            throw new IllegalArgumentException("can not get null element");
+        if (items.length < size)
+            return Index.super.getAll(items);
+
+        int[] order = new int[items.length];
+        for (int i = 0; i < items.length; i++) {
+            if (items[i] == null)
+                throw new IllegalArgumentException("can not get null element");
+            order[i] = i;
+        }
+        sortByWord(order, items);
+
+        int[] counts = new int[items.length];
         Node cur = head;
-        while (cur != null) {
+        for (int i : order) {
+            int compare = 1;
+            while (cur != null && (compare = cur.word.getWord().compareTo(items[i])) < 0)
+                cur = cur.next;
+            counts[i] = cur != null && compare == 0 ? cur.word.getCount() : -1;
+        }
+        return counts;
+    }
 
-            if (cur.word.getWord().equals(item)) {
-                return cur.word.getCount();
+    /**
+     * Sorts positions of an array of words by the words they refer to, with a
+     * bottom-up merge sort.
+     *
+     * @param order the positions to be sorted.
+     * @param items the words.
+     */
+    private static void sortByWord(int[] order, String[] items) {
+        int[] from = order;
+        int[] to = new int[order.length];
+        for (int width = 1; width < order.length; width *= 2) {
+            for (int lo = 0; lo < order.length; lo += 2 * width) {
+                int mid = Math.min(lo + width, order.length);
+                int hi = Math.min(lo + 2 * width, order.length);
+                int i = lo;
+                int j = mid;
+                for (int k = lo; k < hi; k++) {
+                    if (j >= hi || (i < mid && items[from[i]].compareTo(items[from[j]]) <= 0))
+                        to[k] = from[i++];
+                    else
+                        to[k] = from[j++];
+                }
             }
-            cur = cur.next;
+            int[] tmp = from;
+            from = to;
+            to = tmp;
         }
-        return -1;
+        if (from != order)
+            System.arraycopy(from, 0, order, 0, order.length);
     }
 
     /**
@@ -219,6 +490,16 @@ public class SortedLinkedList implements Index {
 
     }
 
+    /**
+     * Returns a hash code for this SortedLinkedList, consistent with equals().
+     *
+     * @return the hash code of this SortedLinkedList.
+     */
+    @Override
+    public int hashCode() {
+        return Index.hashCodeOf(this);
+    }
+
     /**
      * Returns the string representation of this list.
      * The string representation consists of a list of the list's elements
@@ -249,12 +530,15 @@ public class SortedLinkedList implements Index {
     /**
      * Represents a node in the sorted linked list.
      * Each node stores a Word object and references to the next and previous nodes.
+     * Nodes on more than one level of the skip list also store the following
+     * node of each of their upper levels.
      */
     private class Node implements Comparable<Node> {
 
         Word word;
         Node next;
         Node prev;
+        Node[] skip;
 
         /**
          * Constructs a Node that stores the given Word object.
@@ -268,6 +552,29 @@ public class SortedLinkedList implements Index {
             this.word = word;
         }
 
+        /**
+         * Constructs a Node that stores the given Word object on the given
+         * number of levels.
+         *
+         * @param word   the Word object to be stored in this node.
+         * @param levels the number of levels of the skip list, at least 1.
+         * @throws NullPointerException if the provided Word object is null.
+         */
+        Node(Word word, int levels) throws NullPointerException {
+            this(word);
+            if (levels > 1)
+                this.skip = new Node[levels - 1];
+        }
+
+        /**
+         * Returns the number of levels this node is linked on.
+         *
+         * @return the number of levels, at least 1.
+         */
+        int level() {
+            return skip == null ? 1 : skip.length + 1;
+        }
+
         /**
          * Compares this Node with another Node based on the Word objects they store.
          *
@@ -0,0 +1,139 @@
+package project5;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Represents one step of the normalization applied to every whitespace
+ * separated token of the input before it is counted as a word. Steps are
+ * chained with andThen(); a step that returns an empty string drops the token
+ * and ends the chain.
+ * DEFAULT is the normalization FileParser has always applied: the token is
+ * lower-cased, and only its alphabetic characters up to the first apostrophe
+ * are kept. FileParser and ByteTokenizer recognize DEFAULT and use their own
+ * fast paths for it; any other chain is applied to each decoded token.
+ *
+ * @author Olivia Yu
+ * @version October 17, 2026
+ */
+@FunctionalInterface
+public interface TokenFilter {
+
+    /** Lower-cases the token and keeps the letters up to the first apostrophe. */
+    TokenFilter DEFAULT = lowerCase().andThen(lettersToApostrophe());
+
+    /**
+     * Normalizes a token.
+     *
+     * @param token the token, never empty
+     * @return the normalized token, or an empty string if the token should be
+     *         dropped
+     */
+    String apply(String token);
+
+    /**
+     * Returns a filter that applies this filter and then the given one, unless
+     * this filter dropped the token.
+     *
+     * @param next the filter to apply after this one
+     * @return the combined filter
+     * @throws IllegalArgumentException if next is null
+     */
+    default TokenFilter andThen(TokenFilter next) {
+        if (next == null)
+            throw new IllegalArgumentException("filter cannot be null");
+        return token -> {
+            String t = apply(token);
+            return t.isEmpty() ? t : next.apply(t);
+        };
+    }
+
+    /**
+     * Returns a filter that lower-cases the token with the rules of the
+     * default locale, like String.toLowerCase().
+     *
+     * @return the filter
+     */
+    static TokenFilter lowerCase() {
+        return String::toLowerCase;
+    }
+
+    /**
+     * Returns a filter that keeps the alphabetic characters of the token up to
+     * the first apostrophe, like FileParser.stripNonLetters().
+     *
+     * @return the filter
+     */
+    static TokenFilter lettersToApostrophe() {
+        return FileParser::strip;
+    }
+
+    /**
+     * Returns a filter that keeps the letters and the digits of the token up
+     * to the first apostrophe.
+     *
+     * @return the filter
+     */
+    static TokenFilter lettersAndDigitsToApostrophe() {
+        return token -> {
+            StringBuilder clean = new StringBuilder(token.length());
+            for (int i = 0; i < token.length(); i++) {
+                char current = token.charAt(i);
+                if (current == '\'')
+                    break;
+                if (Character.isAlphabetic(current) || Character.isDigit(current))
+                    clean.append(current);
+            }
+            return clean.toString();
+        };
+    }
+
+    /**
+     * Returns a filter that folds the case of the token independently of the
+     * locale, so that for example "STRASSE" and "Stra&szlig;e" become the same word.
+     *
+     * @return the filter
+     */
+    static TokenFilter caseFold() {
+        return token -> token.toUpperCase(Locale.ROOT).toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Returns a filter that drops the given words. It should come after the
+     * filters that bring the tokens to the form of the stop words.
+     *
+     * @param stopWords the words to be dropped
+     * @return the filter
+     * @throws IllegalArgumentException if stopWords is null
+     */
+    static TokenFilter stopWords(Collection<String> stopWords) {
+        if (stopWords == null)
+            throw new IllegalArgumentException("stop words cannot be null");
+        Set<String> words = new HashSet<>(stopWords);
+        return token -> words.contains(token) ? "" : token;
+    }
+
+    /**
+     * Returns a filter that removes English plural endings with the rules of
+     * the S stemmer (Harman, 1991): "ies" becomes "y" unless preceded by "e"
+     * or "a", "es" becomes "e" unless preceded by "a", "e" or "o", and a final
+     * "s" is removed unless preceded by "u" or "s". It expects lower-case
+     * tokens.
+     *
+     * @return the filter
+     */
+    static TokenFilter sStemmer() {
+        return token -> {
+            int n = token.length();
+            if (n > 3 && token.endsWith("ies") && token.charAt(n - 4) != 'e' && token.charAt(n - 4) != 'a')
+                return token.substring(0, n - 3) + "y";
+            if (n > 2 && token.endsWith("es") && "aeo".indexOf(token.charAt(n - 3)) < 0)
+                return token.substring(0, n - 1);
+            if (n > 1 && token.endsWith("s") && "us".indexOf(token.charAt(n - 2)) < 0)
+                return token.substring(0, n - 1);
+            return token;
+        };
+    }
+}
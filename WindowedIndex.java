@@ -0,0 +1,449 @@
+package project5;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.function.IntPredicate;
+import java.util.function.LongSupplier;
+
+/**
+ * Represents an index that counts only the words of a sliding window: the
+ * last N words added, or the words added during the last N minutes.
+ * The window is divided into a ring of buckets. New words are counted both in
+ * the current bucket and in the totals of the whole window. When the current
+ * bucket is full (or its time span is over), the ring moves on and the
+ * oldest bucket expires: its counts are subtracted from the totals and it is
+ * reused. Expiring a bucket costs time proportional to the number of distinct
+ * words in that bucket, so history is never rescanned, and get() is a single
+ * lookup in the totals.
+ * The window moves in steps of one bucket, so it covers between
+ * (buckets - 1) and buckets bucket spans.
+ * Iteration is over a sorted snapshot of the words in the window, with the
+ * counts they had when the iterator was created.
+ *
+ * @author Olivia Yu
+ * @version October 17, 2026
+ */
+public class WindowedIndex implements Index {
+
+    private final HashMap<String, Word>[] buckets;
+    private final HashMap<String, Word> totals = new HashMap<>();
+    private final long span;
+    private final LongSupplier clock;
+    private int current = 0;
+    private long used = 0;
+    private long bucketNumber;
+
+    /**
+     * Constructs an index over the last windowWords words added.
+     *
+     * @param windowWords number of words in the window.
+     * @param buckets     number of buckets the window is divided into.
+     * @throws IllegalArgumentException if windowWords or buckets is not
+     *                                  positive.
+     */
+    public WindowedIndex(long windowWords, int buckets) throws IllegalArgumentException {
+        this(windowWords, buckets, null);
+    }
+
+    /**
+     * Constructs an index over the words added during the given duration,
+     * measured by the system clock.
+     *
+     * @param window  duration of the window.
+     * @param buckets number of buckets the window is divided into.
+     * @throws IllegalArgumentException if window is null or shorter than one
+     *                                  millisecond per bucket, or buckets is
+     *                                  not positive.
+     */
+    public WindowedIndex(Duration window, int buckets) throws IllegalArgumentException {
+        this(window, buckets, System::currentTimeMillis);
+    }
+
+    /**
+     * Constructs an index over the words added during the given duration,
+     * measured by the given clock. The clock may, for example, return the time
+     * stamps of the log lines being read.
+     *
+     * @param window  duration of the window.
+     * @param buckets number of buckets the window is divided into.
+     * @param clock   returns the current time in milliseconds; it must not go
+     *                backwards.
+     * @throws IllegalArgumentException if window or clock is null, window is
+     *                                  shorter than one millisecond per bucket,
+     *                                  or buckets is not positive.
+     */
+    public WindowedIndex(Duration window, int buckets, LongSupplier clock)
+            throws IllegalArgumentException {
+        this(window == null ? 0 : window.toMillis(), buckets, clock);
+        if (clock == null)
+            throw new IllegalArgumentException("clock cannot be null");
+        bucketNumber = clock.getAsLong() / span;
+    }
+
+    /**
+     * Constructs an index whose window spans the given number of words, or of
+     * milliseconds if there is a clock.
+     *
+     * @param window  length of the window.
+     * @param buckets number of buckets the window is divided into.
+     * @param clock   returns the current time in milliseconds, or null to
+     *                count words.
+     * @throws IllegalArgumentException if the window is shorter than one unit
+     *                                  per bucket or buckets is not positive.
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private WindowedIndex(long window, int buckets, LongSupplier clock)
+            throws IllegalArgumentException {
+        if (buckets <= 0)
+            throw new IllegalArgumentException("number of buckets must be positive");
+        if (window < buckets)
+            throw new IllegalArgumentException("window must be at least one unit per bucket");
+
+        this.buckets = new HashMap[buckets];
+        for (int i = 0; i < buckets; i++)
+            this.buckets[i] = new HashMap<>();
+        this.span = (window + buckets - 1) / buckets;
+        this.clock = clock;
+    }
+
+    /**
+     * Returns an iterator over a sorted snapshot of the words in the window.
+     *
+     * @return an Iterator for the WindowedIndex.
+     */
+    @Override
+    public Iterator<Word> iterator() {
+        advance();
+        List<Word> snapshot = new ArrayList<>(totals.size());
+        for (Word w : totals.values())
+            snapshot.add(new Word(w.getWord(), w.getCount()));
+        Collections.sort(snapshot);
+        return new SnapshotIterator(snapshot);
+    }
+
+    /**
+     * Adds a word to the current bucket of the window.
+     *
+     * @param item the word to be added.
+     * @throws IllegalArgumentException if the item is null.
+     */
+    @Override
+    public void add(String item) throws IllegalArgumentException {
+        add(item, 1);
+    }
+
+    /**
+     * Adds count occurrences of a word to the current bucket of the window.
+     * When the window counts words, all occurrences go to the current bucket
+     * even if they fill it beyond its span.
+     *
+     * @param item  the word to be added.
+     * @param count the number of occurrences to be added.
+     * @throws IllegalArgumentException if the item is null or the count is not
+     *                                  positive.
+     */
+    @Override
+    public void add(String item, int count) throws IllegalArgumentException {
+        if (item == null)
+            throw new IllegalArgumentException("can not add null element");
+        if (count <= 0)
+            throw new IllegalArgumentException("count must be positive");
+
+        advance();
+        increase(buckets[current], item, count);
+        increase(totals, item, count);
+
+        if (clock == null) {
+            used += count;
+            if (used >= span)
+                rotate();
+        }
+    }
+
+    /**
+     * Increases the count of a word in a map, adding the word if necessary.
+     *
+     * @param words the map.
+     * @param item  the word.
+     * @param count the amount to be added.
+     */
+    private static void increase(HashMap<String, Word> words, String item, int count) {
+        Word w = words.get(item);
+        if (w == null)
+            words.put(item, new Word(item, count));
+        else
+            w.addCount(count);
+    }
+
+    /**
+     * Moves the ring on to the buckets that cover the current time. If the
+     * whole window has passed, all buckets are cleared at once.
+     */
+    private void advance() {
+        if (clock == null)
+            return;
+
+        long now = clock.getAsLong() / span;
+        if (now - bucketNumber >= buckets.length) {
+            for (HashMap<String, Word> bucket : buckets)
+                bucket.clear();
+            totals.clear();
+            bucketNumber = now;
+            return;
+        }
+        while (bucketNumber < now) {
+            rotate();
+            bucketNumber++;
+        }
+    }
+
+    /**
+     * Moves the ring on by one bucket: the oldest bucket expires, its counts
+     * are subtracted from the totals, and it becomes the current bucket.
+     */
+    private void rotate() {
+        current = (current + 1) % buckets.length;
+        HashMap<String, Word> oldest = buckets[current];
+        for (Word w : oldest.values()) {
+            Word total = totals.get(w.getWord());
+            if (total.addCount(-w.getCount()) == 0)
+                totals.remove(w.getWord());
+        }
+        oldest.clear();
+        used = 0;
+    }
+
+    /**
+     * Removes the specified word from the window.
+     *
+     * @param item the word to be removed.
+     * @throws IllegalArgumentException if the item is null.
+     */
+    @Override
+    public void remove(String item) throws IllegalArgumentException {
+        if (item == null)
+            throw new IllegalArgumentException("can not remove null element");
+
+        if (totals.remove(item) != null) {
+            for (HashMap<String, Word> bucket : buckets)
+                bucket.remove(item);
+        }
+    }
+
+    /**
+     * Removes every word whose count in the window satisfies the given
+     * predicate.
+     *
+     * @param onCount predicate applied to the count of each word.
+     * @return the number of words removed.
+     * @throws IllegalArgumentException if onCount is null.
+     */
+    @Override
+    public int removeIf(IntPredicate onCount) throws IllegalArgumentException {
+        if (onCount == null)
+            throw new IllegalArgumentException("predicate cannot be null");
+
+        advance();
+        int removed = 0;
+        Iterator<Word> it = totals.values().iterator();
+        while (it.hasNext()) {
+            Word w = it.next();
+            if (onCount.test(w.getCount())) {
+                it.remove();
+                for (HashMap<String, Word> bucket : buckets)
+                    bucket.remove(w.getWord());
+                removed++;
+            }
+        }
+        return removed;
+    }
+
+    /**
+     * Retrieves the count of the specified word in the window.
+     *
+     * @param item the word whose count is to be returned.
+     * @return the count of the word, or -1 if the word is not in the window.
+     * @throws IllegalArgumentException if the item is null.
+     */
+    @Override
+    public int get(String item) throws IllegalArgumentException {
+        if (item == null)
+            throw new IllegalArgumentException("can not get null element");
+
+        advance();
+        Word w = totals.get(item);
+        return w == null ? -1 : w.getCount();
+    }
+
+    /**
+     * Returns the k most frequent words of the window, ordered from the
+     * highest count to the lowest, with ties in alphabetical order. The totals
+     * are scanned once with a heap of at most k words, without sorting the
+     * whole window. The words returned are copies, which do not change when
+     * later words are added or expire.
+     *
+     * @param k number of words to be returned.
+     * @return list of at most k most frequent words.
+     * @throws IllegalArgumentException if k is negative.
+     */
+    @Override
+    public List<Word> topK(int k) throws IllegalArgumentException {
+        advance();
+        return Index.mostFrequent(totals.values(), totals.size(), k);
+    }
+
+    /**
+     * Returns the number of unique words in the window.
+     *
+     * @return the size of the index.
+     */
+    @Override
+    public int size() {
+        advance();
+        return totals.size();
+    }
+
+    /**
+     * Compares the specified object with this index for equality.
+     * Returns true if the given object is also an instance of Index, the two
+     * indexes have the same size, and all corresponding pairs of elements are
+     * equal.
+     *
+     * @param o the object to be compared for equality with this index.
+     * @return true if the specified object is equal to this index.
+     */
+    @Override
+    public boolean equals(Object o) {
+        if (o == null)
+            return false;
+
+        if (o == this)
+            return true;
+
+        if (!(o instanceof Index))
+            return false;
+
+        Index obj = (Index) o;
+
+        if (this.size() != obj.size())
+            return false;
+
+        // using two iterators to iterate through two indexes and checks the equality
+        // for each data value
+        Iterator<Word> it1 = this.iterator();
+        Iterator<Word> it2 = obj.iterator();
+
+        while (it1.hasNext() && it2.hasNext()) {
+            Word data1 = it1.next();
+            Word data2 = it2.next();
+
+            if (!data1.equals(data2))
+                return false;
+
+        }
+
+        return !it1.hasNext() && !it2.hasNext();
+
+    }
+
+    /**
+     * Returns a hash code for this index, consistent with equals().
+     *
+     * @return the hash code of this index.
+     */
+    @Override
+    public int hashCode() {
+        return Index.hashCodeOf(this);
+    }
+
+    /**
+     * Returns the string representation of this index.
+     * The string representation consists of a list of the words in the window
+     * in sorted order enclosed in square brackets ("[]").
+     * Adjacent elements are separated by the characters ", " (comma and space).
+     *
+     * @return the string representation of this index.
+     */
+    public String toString() {
+        if (size() == 0) {
+            return "[]";
+        }
+
+        StringBuilder str = new StringBuilder("[");
+        Iterator<Word> it = iterator();
+
+        if (it.hasNext()) {
+            str.append(it.next());
+        }
+
+        while (it.hasNext()) {
+            str.append(", ").append(it.next());
+        }
+
+        return str.append("]").toString();
+    }
+
+    /**
+     * Implements the Iterator interface over a sorted snapshot of the words
+     * and is able to remove the last returned word from the window.
+     */
+    private class SnapshotIterator implements Iterator<Word> {
+        private final List<Word> snapshot;
+        private int next = 0;
+        private Word lastReturned = null;
+
+        /**
+         * Constructs an iterator over the given sorted snapshot.
+         *
+         * @param snapshot the words of the window in sorted order.
+         */
+        SnapshotIterator(List<Word> snapshot) {
+            this.snapshot = snapshot;
+        }
+
+        /**
+         * Checks if there are more elements in the iteration.
+         *
+         * @return true if the iteration has more elements.
+         */
+        @Override
+        public boolean hasNext() {
+            return next < snapshot.size();
+        }
+
+        /**
+         * Returns the next element in the iteration.
+         *
+         * @return the next Word in the iteration.
+         * @throws NoSuchElementException if the iteration has no more elements.
+         */
+        @Override
+        public Word next() throws NoSuchElementException {
+            if (!hasNext())
+                throw new NoSuchElementException("the end of the index reached");
+            lastReturned = snapshot.get(next++);
+            return lastReturned;
+        }
+
+        /**
+         * Removes from the window the last element returned by this iterator.
+         *
+         * @throws IllegalStateException if the next method has not yet been called,
+         *                               or the remove method has already been called
+         *                               after the last call to next.
+         */
+        @Override
+        public void remove() throws IllegalStateException {
+            if (lastReturned == null)
+                throw new IllegalStateException("next() must be called before remove method");
+
+            WindowedIndex.this.remove(lastReturned.getWord());
+            lastReturned = null;
+        }
+    }
+}
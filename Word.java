@@ -28,6 +28,17 @@ public class Word implements Comparable<Word> {
         this.count = 1;
     }
 
+    /**
+     * Constructs a new Word object with the specified word and count.
+     *
+     * @param word  The word stored in this Word object.
+     * @param count The initial count of the word.
+     */
+    public Word(String word, int count) {
+        this.word = word;
+        this.count = count;
+    }
+
     /**
      * Increments the count associated with this Word object by 1.
      * 
@@ -38,6 +49,17 @@ public class Word implements Comparable<Word> {
         return count;
     }
 
+    /**
+     * Adds the given amount to the count associated with this Word object.
+     *
+     * @param amount The amount to be added to the count.
+     * @return The updated count value.
+     */
+    public int addCount(int amount) {
+        count += amount;
+        return count;
+    }
+
     /**
      * Returns the word associated with this Word object.
      *
@@ -0,0 +1,23 @@
+package project5;
+
+/**
+ * Represents an operation that accepts a word given as a slice of a byte
+ * array holding its UTF-8 encoding. The array may be reused after the call
+ * returns, so implementations must copy any bytes they want to keep.
+ *
+ * @author Olivia Yu
+ * @version October 17, 2026
+ */
+@FunctionalInterface
+public interface WordSliceConsumer {
+
+    /**
+     * Performs this operation on the given word.
+     *
+     * @param bytes  array holding the UTF-8 encoded word
+     * @param offset position of the first byte of the word
+     * @param length number of bytes of the word
+     */
+    void accept(byte[] bytes, int offset, int length);
+
+}